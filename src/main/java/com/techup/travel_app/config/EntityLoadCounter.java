@@ -0,0 +1,32 @@
+package com.techup.travel_app.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts entities Hibernate materializes on the current thread between {@link #start()} and
+ * {@link #stop()}. Loads outside a counting scope (startup, background jobs) are ignored.
+ */
+public class EntityLoadCounter implements Interceptor {
+
+    private static final ThreadLocal<int[]> LOADED = new ThreadLocal<>();
+
+    static void start() {
+        LOADED.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] loaded = LOADED.get();
+        LOADED.remove();
+        return loaded != null ? loaded[0] : 0;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        int[] loaded = LOADED.get();
+        if (loaded != null) {
+            loaded[0]++;
+        }
+        return false;
+    }
+}
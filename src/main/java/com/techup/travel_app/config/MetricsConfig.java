@@ -0,0 +1,81 @@
+package com.techup.travel_app.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCounter());
+    }
+
+    // Wraps the application DataSource (the read/write router when a replica is configured), so every
+    // statement reaches the monitor whichever pool serves it
+    @Bean
+    public static BeanPostProcessor sqlStatementMonitorDataSourcePostProcessor(ObjectProvider<SqlStatementMonitor> monitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(monitor.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Per-request entity loads and repeated statement shapes (N+1). Runs ahead of Spring Security so
+    // lookups made during authentication are counted too
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> requestDatabaseMetricsFilter(
+            MeterRegistry meterRegistry, SqlStatementMonitor sqlStatementMonitor) {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                    throws ServletException, IOException {
+                EntityLoadCounter.start();
+                sqlStatementMonitor.startRequest();
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    int loaded = EntityLoadCounter.stop();
+                    // Only mapped routes are recorded, so unknown paths cannot blow up tag cardinality
+                    Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    sqlStatementMonitor.finishRequest(request.getMethod(), uri != null ? uri.toString() : null);
+                    if (uri != null) {
+                        DistributionSummary.builder("http.server.requests.entities")
+                                .description("Entities loaded by Hibernate per request")
+                                .tag("method", request.getMethod())
+                                .tag("uri", uri.toString())
+                                .register(meterRegistry)
+                                .record(loaded);
+                    }
+                }
+            }
+        });
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,73 @@
+package com.techup.travel_app.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions to a replica when {@code spring.datasource.replica.url} is set;
+ * otherwise Boot's single auto-configured pool is used unchanged.
+ * <p>
+ * The application DataSource is a {@link LazyConnectionDataSourceProxy}: it hands out a connection
+ * handle at transaction begin but only borrows a physical connection on the first statement, by which
+ * point the transaction manager has marked it read-only. Read-only work then goes to the replica pool,
+ * everything else (including reads that join a read-write transaction) to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    // Same binding Boot applies to its own pool, so spring.datasource.hikari.* keeps working
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Inherits the primary pool's settings (driver properties included); only connection details and size differ
+    @Bean
+    public HikariDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            @Value("${spring.datasource.replica.url}") String url,
+            @Value("${spring.datasource.replica.username:}") String username,
+            @Value("${spring.datasource.replica.password:}") String password,
+            @Value("${spring.datasource.replica.maximum-pool-size:0}") int maximumPoolSize
+    ) {
+        HikariConfig config = new HikariConfig();
+        primaryDataSource.copyStateTo(config);
+        config.setJdbcUrl(url);
+        if (StringUtils.hasText(username)) {
+            config.setUsername(username);
+            config.setPassword(password);
+        }
+        if (maximumPoolSize > 0) {
+            config.setMaximumPoolSize(maximumPoolSize);
+        }
+        config.setPoolName("replica");
+        config.setReadOnly(true);
+
+        HikariDataSource dataSource = new HikariDataSource();
+        config.copyStateTo(dataSource);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -1,16 +1,99 @@
 package com.techup.travel_app.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
+/**
+ * HTTP client for the storage integration: a bounded keep-alive connection pool so uploads reuse
+ * TCP/TLS sessions instead of handshaking per request, with explicit timeouts at every stage.
+ */
 @Configuration
 public class RestClientConfig {
 
+    @Value("${supabase.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${supabase.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    // Max inactivity between packets while reading the response, not the whole exchange
+    @Value("${supabase.http.socket-timeout:30s}")
+    private Duration socketTimeout;
+
+    @Value("${supabase.http.response-timeout:60s}")
+    private Duration responseTimeout;
+
+    // How long a caller waits for a free pooled connection before failing fast
+    @Value("${supabase.http.pool-acquire-timeout:10s}")
+    private Duration poolAcquireTimeout;
+
+    // Kept below typical server/load balancer keep-alive windows so we rarely pick a half-closed socket
+    @Value("${supabase.http.idle-timeout:30s}")
+    private Duration idleTimeout;
+
+    // Caps connection age so DNS changes on the storage endpoint are eventually picked up
+    @Value("${supabase.http.time-to-live:10m}")
+    private Duration timeToLive;
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public PoolingHttpClientConnectionManager storageConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                // Every request goes to the same host, so a single route may use the whole pool
+                .setMaxConnPerRoute(maxConnections)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                // Reuse the most recently released connection so idle ones age out and get evicted
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(socketTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
     }
-}
 
+    @Bean
+    public CloseableHttpClient storageHttpClient(PoolingHttpClientConnectionManager storageConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(storageConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient storageHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(storageHttpClient))
+                .build();
+    }
+
+    // httpcomponents.httpclient.pool.{total.max,total.connections,total.pending,route.max.default}
+    @Bean
+    public MeterBinder storageConnectionPoolMetrics(PoolingHttpClientConnectionManager storageConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(storageConnectionManager, "supabase-storage");
+    }
+}
@@ -0,0 +1,10 @@
+package com.techup.travel_app.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Runs the @Scheduled background jobs, e.g. StorageReaper
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
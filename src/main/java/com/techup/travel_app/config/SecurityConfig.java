@@ -1,6 +1,8 @@
 package com.techup.travel_app.config;
 
 import com.techup.travel_app.security.JwtAuthenticationFilter;
+import com.techup.travel_app.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,15 +33,15 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -49,7 +51,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(Customizer.withDefaults())
@@ -57,13 +59,18 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll() // Login and register
                 .requestMatchers("/api/login").permitAll() // Legacy login route
                 .requestMatchers("/api/register").permitAll() // Legacy register route
+                .requestMatchers(HttpMethod.GET, "/api/trips/export").authenticated() // Full-table dump; not for anonymous scraping
                 .requestMatchers(HttpMethod.GET, "/api/trips/**").permitAll() // Public trip browse
+                .requestMatchers(HttpMethod.POST, "/api/trips/import").hasRole("ADMIN") // Bulk load; lines may name any author
+                .requestMatchers("/livez", "/readyz").permitAll() // Platform probes on the public port
+                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll() // Only on the private management port
+                .requestMatchers("/actuator/**").hasRole("ADMIN") // Diagnostics such as /actuator/sqlqueries
                 .anyRequest().authenticated() // All other endpoints require authentication
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
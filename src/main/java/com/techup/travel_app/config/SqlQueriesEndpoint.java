@@ -0,0 +1,34 @@
+package com.techup.travel_app.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/sqlqueries?limit=20&sort=mean|max|total}: the slowest statement shapes since
+ * startup, with SQL text but never bind values. Restricted to admins by {@link SecurityConfig}.
+ */
+@Component
+@Endpoint(id = "sqlqueries")
+@RequiredArgsConstructor
+public class SqlQueriesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SqlStatementMonitor sqlStatementMonitor;
+
+    @ReadOperation
+    public List<SqlStatementMonitor.ShapeSummary> slowest(@Nullable Integer limit, @Nullable String sort) {
+        try {
+            return sqlStatementMonitor.slowest(limit != null ? limit : DEFAULT_LIMIT, sort);
+        } catch (IllegalArgumentException e) {
+            // Answered as 400 rather than 500
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
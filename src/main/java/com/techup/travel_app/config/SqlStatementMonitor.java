@@ -0,0 +1,221 @@
+package com.techup.travel_app.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement-shape JDBC statistics, fed by the datasource-proxy wrapped around the application
+ * DataSource. A shape is the SQL with literals and IN-list arities collapsed, so one repository query
+ * maps to one shape however it is called.
+ * <p>
+ * Records a {@code db.statement} timer per shape, logs statements slower than
+ * {@code sql.monitoring.slow-threshold} (bind counts only, never values), and flags SELECT shapes a
+ * single request runs at least {@code sql.monitoring.n-plus-one-threshold} times.
+ */
+@Component
+@Slf4j
+public class SqlStatementMonitor implements QueryExecutionListener {
+
+    static final String OTHER_SHAPE = "other";
+
+    private static final String START_NANOS = SqlStatementMonitor.class.getName() + ".start";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+([\\w.\"]+)");
+
+    // Executions per shape on the current request thread, between startRequest() and finishRequest()
+    private static final ThreadLocal<Map<ShapeStats, int[]>> REQUEST_SELECTS = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+    private final int maxShapes;
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    // Hibernate reuses a small set of SQL strings, so the regex normalization is memoized per raw SQL
+    private final Cache<String, String> shapeBySql;
+
+    public SqlStatementMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${sql.monitoring.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${sql.monitoring.n-plus-one-threshold:10}") int nPlusOneThreshold,
+            @Value("${sql.monitoring.max-shapes:500}") int maxShapes
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.maxShapes = maxShapes;
+        this.shapeBySql = Caffeine.newBuilder().maximumSize(maxShapes * 4L).build();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsedNanos = start != null
+                ? System.nanoTime() - start
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+
+        // Batches are attributed to their first statement; Hibernate only batches a single shape at a time
+        QueryInfo query = queryInfoList.get(0);
+        ShapeStats stats = statsFor(shapeBySql.get(query.getQuery(), SqlStatementMonitor::shapeOf));
+        stats.record(elapsedNanos);
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            List<?> parameters = query.getParametersList();
+            int binds = parameters.isEmpty() ? 0 : ((List<?>) parameters.get(0)).size();
+            log.warn("Slow SQL ({} ms, {}, binds={}, batch={}, success={}): {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), stats.tag, binds,
+                    execInfo.isBatch() ? execInfo.getBatchSize() : 0, execInfo.isSuccess(), stats.sql);
+        }
+
+        Map<ShapeStats, int[]> requestSelects = REQUEST_SELECTS.get();
+        if (requestSelects != null && stats.select) {
+            requestSelects.computeIfAbsent(stats, key -> new int[1])[0]++;
+        }
+    }
+
+    void startRequest() {
+        REQUEST_SELECTS.set(new IdentityHashMap<>());
+    }
+
+    void finishRequest(String method, String uri) {
+        Map<ShapeStats, int[]> requestSelects = REQUEST_SELECTS.get();
+        REQUEST_SELECTS.remove();
+        if (requestSelects == null || uri == null) {
+            return;
+        }
+        requestSelects.forEach((stats, executions) -> {
+            if (executions[0] >= nPlusOneThreshold) {
+                stats.repeatedInRequest.increment();
+                log.warn("Possible N+1: {} {} ran {} {} times: {}", method, uri, stats.tag, executions[0], stats.sql);
+                Counter.builder("db.statement.repeated")
+                        .description("Requests that ran one SELECT shape at least the N+1 threshold times")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .tag("shape", stats.tag)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        });
+    }
+
+    /**
+     * Shapes ordered slowest first by the given measure: "mean" (default), "max" or "total".
+     */
+    public List<ShapeSummary> slowest(int limit, String sort) {
+        Comparator<ShapeSummary> order = switch (sort == null ? "mean" : sort.toLowerCase(Locale.ROOT)) {
+            case "max" -> Comparator.comparingDouble(ShapeSummary::maxMs);
+            case "total" -> Comparator.comparingDouble(ShapeSummary::totalMs);
+            case "mean" -> Comparator.comparingDouble(ShapeSummary::meanMs);
+            default -> throw new IllegalArgumentException("sort must be one of mean, max, total");
+        };
+        return shapes.values().stream()
+                .map(ShapeStats::summary)
+                .sorted(order.reversed())
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    /**
+     * Normalizes SQL into its shape: literals become {@code ?}, {@code (?, ?, ...)} lists of any
+     * length become {@code (?...)}, and whitespace is collapsed.
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Short, stable metric tag for a shape, e.g. "select trips 1f3a9c2e"
+    static String tagOf(String shape) {
+        int space = shape.indexOf(' ');
+        String operation = space > 0 ? shape.substring(0, space) : shape;
+        Matcher table = TABLE.matcher(shape);
+        String target = table.find() ? table.group(1).replace("\"", "") : "-";
+        return operation + " " + target + " " + String.format("%08x", shape.hashCode());
+    }
+
+    private ShapeStats statsFor(String shape) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        // Bounds memory and metric cardinality if something generates unbounded SQL variants
+        String key = shapes.size() < maxShapes ? shape : OTHER_SHAPE;
+        return shapes.computeIfAbsent(key, ShapeStats::new);
+    }
+
+    public record ShapeSummary(String shape, String sql, long count, double meanMs, double maxMs, double totalMs,
+                               long repeatedInRequest) {
+    }
+
+    private final class ShapeStats {
+
+        final String sql;
+        final String tag;
+        final boolean select;
+        final Timer timer;
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final LongAdder repeatedInRequest = new LongAdder();
+
+        ShapeStats(String sql) {
+            this.sql = sql;
+            this.tag = OTHER_SHAPE.equals(sql) ? OTHER_SHAPE : tagOf(sql);
+            this.select = sql.startsWith("select") || sql.startsWith("with");
+            this.timer = Timer.builder("db.statement")
+                    .description("JDBC statement execution time by statement shape")
+                    .tag("shape", tag)
+                    .register(meterRegistry);
+        }
+
+        void record(long elapsedNanos) {
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        ShapeSummary summary() {
+            long executions = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            return new ShapeSummary(tag, sql, executions, executions == 0 ? 0 : totalMs / executions,
+                    maxNanos.get() / 1_000_000.0, totalMs, repeatedInRequest.sum());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.techup.travel_app.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the HQL functions behind trip full-text search.
+ *
+ * <p>On PostgreSQL they render the tsvector expression indexed by {@code idx_trips_search}
+ * (see {@code db/postgresql/schema.sql}); the two must stay identical for the GIN index to be used.
+ * Other databases (H2 in tests) get a case-insensitive LIKE fallback with the same signature.
+ */
+public class TripSearchFunctions implements FunctionContributor {
+
+    public static final String MATCHES = "trip_search_matches";
+    public static final String RANK = "trip_search_rank";
+
+    private static final String DOCUMENT =
+            "(setweight(to_tsvector('simple', coalesce(?1, '')), 'A') || "
+                    + "setweight(to_tsvector('simple', coalesce(?2, '')), 'B'))";
+
+    private static final String QUERY = "websearch_to_tsquery('simple', ?3)";
+
+    private static final String TITLE_LIKE = "lower(coalesce(?1, '')) like concat('%', lower(?3), '%')";
+    private static final String TEXT_LIKE = "lower(coalesce(?2, '')) like concat('%', lower(?3), '%')";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        BasicType<Boolean> booleanType = contributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = contributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+
+        if (contributions.getDialect() instanceof PostgreSQLDialect) {
+            contributions.getFunctionRegistry().registerPattern(
+                    MATCHES, DOCUMENT + " @@ " + QUERY, booleanType);
+            contributions.getFunctionRegistry().registerPattern(
+                    RANK, "ts_rank_cd(" + DOCUMENT + ", " + QUERY + ")", doubleType);
+        } else {
+            contributions.getFunctionRegistry().registerPattern(
+                    MATCHES, "(" + TITLE_LIKE + " or " + TEXT_LIKE + ")", booleanType);
+            contributions.getFunctionRegistry().registerPattern(
+                    RANK, "(case when " + TITLE_LIKE + " then 2.0 else 1.0 end)", doubleType);
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.techup.travel_app.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techup.travel_app.dto.CursorPageResponse;
+import com.techup.travel_app.dto.ResourceVersion;
+import com.techup.travel_app.dto.TagFacetResponse;
 import com.techup.travel_app.dto.TripRequest;
 import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.security.CustomUserDetails;
+import com.techup.travel_app.service.TagFacetService;
+import com.techup.travel_app.service.TripExportService;
+import com.techup.travel_app.service.TripImportService;
 import com.techup.travel_app.service.TripService;
+import com.techup.travel_app.util.TagUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api")
@@ -24,6 +39,9 @@ import java.util.List;
 public class TripController {
     
     private final TripService tripService;
+    private final TagFacetService tagFacetService;
+    private final TripImportService tripImportService;
+    private final TripExportService tripExportService;
     
     @PostMapping(value = "/trips", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<TripResponse> createTrip(@Valid @RequestBody TripRequest request) {
@@ -31,6 +49,16 @@ public class TripController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // NDJSON in, NDJSON out: the body is consumed while results stream back batch by batch, so neither
+    // side is ever buffered whole. Lines without an authorId are attributed to the caller. Admin only
+    // (see SecurityConfig), since a line may name any author.
+    @PostMapping(value = "/trips/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importTrips(HttpServletRequest request) {
+        Long currentUserId = CustomUserDetails.currentUserId();
+        StreamingResponseBody body = out -> tripImportService.importTrips(request.getInputStream(), currentUserId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping(value = "/trips", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<TripResponse> createTripWithUploads(
             @RequestPart(value = "trip", required = false) String tripJson,
@@ -63,7 +91,7 @@ public class TripController {
                 tripRequest.setDescription(description);
             }
             if (tags != null && !tags.trim().isEmpty()) {
-                tripRequest.setTags(java.util.Arrays.asList(tags.split(",")));
+                tripRequest.setTags(TagUtils.parse(tags));
             }
             if (latitude != null) {
                 tripRequest.setLatitude(latitude);
@@ -177,7 +205,7 @@ public class TripController {
                 tripRequest.setDescription(description);
             }
             if (tags != null && !tags.trim().isEmpty()) {
-                tripRequest.setTags(java.util.Arrays.asList(tags.split(",")));
+                tripRequest.setTags(TagUtils.parse(tags));
             }
             if (latitude != null) {
                 tripRequest.setLatitude(latitude);
@@ -207,26 +235,89 @@ public class TripController {
     }
     
     @GetMapping("/trips/{id}")
-    public ResponseEntity<TripResponse> getTripById(@PathVariable Long id) {
+    public ResponseEntity<TripResponse> getTripById(@PathVariable Long id, WebRequest webRequest) {
+        ResourceVersion version = tripService.getTripVersion(id);
+        if (version != null && webRequest.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null; // 304 with ETag/Last-Modified already set
+        }
         TripResponse response = tripService.getTripById(id);
         return ResponseEntity.ok(response);
     }
     
     @GetMapping("/trips")
-    public ResponseEntity<List<TripResponse>> getAllTrips() {
-        List<TripResponse> responses = tripService.getAllTrips();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<CursorPageResponse<TripResponse>> getTrips(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "tags", required = false) String tags,
+            @RequestParam(value = "match", defaultValue = "all") String match,
+            WebRequest webRequest) {
+        if (!"all".equalsIgnoreCase(match) && !"any".equalsIgnoreCase(match)) {
+            return ResponseEntity.badRequest().build();
+        }
+        // The ETag is derived from the page itself, so it is computed after the page is loaded and a 304
+        // saves the response body, not the queries. No aggregate over the table can stand in for it:
+        // deletions and author renames move no trip timestamp
+        CursorPageResponse<TripResponse> page = tripService.getTripsPage(
+                cursor, size, TagUtils.parse(tags), "all".equalsIgnoreCase(match));
+        if (webRequest.checkNotModified(tripService.getListVersion(page.getItems(), page.getNextCursor()).etag())) {
+            return null;
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    // Full dump for offline analysis, streamed in chunks so memory stays flat regardless of table size
+    @GetMapping("/trips/export")
+    public ResponseEntity<StreamingResponseBody> exportTrips(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        TripExportService.Format exportFormat = TripExportService.Format.parse(format);
+        MediaType contentType = exportFormat == TripExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = out -> tripExportService.exportTrips(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("trips." + exportFormat.name().toLowerCase(Locale.ROOT))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/trips/tags/facets")
+    public ResponseEntity<List<TagFacetResponse>> getTagFacets(
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        List<TagFacetResponse> facets = tagFacetService.getTopTags(limit);
+        return ResponseEntity.ok(facets);
     }
     
     @GetMapping("/trips/author/{authorId}")
-    public ResponseEntity<List<TripResponse>> getTripsByAuthor(@PathVariable Long authorId) {
+    public ResponseEntity<List<TripResponse>> getTripsByAuthor(@PathVariable Long authorId, WebRequest webRequest) {
         List<TripResponse> responses = tripService.getTripsByAuthorId(authorId);
+        if (webRequest.checkNotModified(tripService.getListVersion(responses, null).etag())) {
+            return null;
+        }
         return ResponseEntity.ok(responses);
     }
     
     @GetMapping("/trips/search")
-    public ResponseEntity<List<TripResponse>> searchTrips(@RequestParam String title) {
-        List<TripResponse> responses = tripService.searchTripsByTitle(title);
+    public ResponseEntity<CursorPageResponse<TripResponse>> searchTrips(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        // "title" is kept for older clients; "q" searches title, tags and description
+        String searchQuery = query != null ? query : title;
+        CursorPageResponse<TripResponse> page = tripService.searchTrips(searchQuery, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/trips/nearby")
+    public ResponseEntity<List<TripResponse>> getNearbyTrips(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lng") double longitude,
+            @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        List<TripResponse> responses = tripService.getNearbyTrips(latitude, longitude, radiusKm, limit);
         return ResponseEntity.ok(responses);
     }
     
@@ -270,7 +361,7 @@ public class TripController {
                 tripRequest.setDescription(description);
             }
             if (tags != null && !tags.trim().isEmpty()) {
-                tripRequest.setTags(java.util.Arrays.asList(tags.split(",")));
+                tripRequest.setTags(TagUtils.parse(tags));
             }
             if (latitude != null) {
                 tripRequest.setLatitude(latitude);
@@ -330,7 +421,7 @@ public class TripController {
                 tripRequest.setDescription(description);
             }
             if (tags != null && !tags.trim().isEmpty()) {
-                tripRequest.setTags(java.util.Arrays.asList(tags.split(",")));
+                tripRequest.setTags(TagUtils.parse(tags));
             }
             if (latitude != null) {
                 tripRequest.setLatitude(latitude);
@@ -0,0 +1,22 @@
+package com.techup.travel_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    @Builder.Default
+    private List<T> items = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+    private int size;
+}
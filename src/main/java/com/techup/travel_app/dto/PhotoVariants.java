@@ -0,0 +1,27 @@
+package com.techup.travel_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One trip photo and its resized copies. The variant URLs are omitted until background processing
+ * has produced them, so clients fall back to {@code url}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PhotoVariants {
+
+    private String url;
+    // Longest edge 320px, for grids
+    private String thumbnail;
+    // Longest edge 800px, for list cards
+    private String card;
+    // Longest edge 1600px, for the detail view
+    private String full;
+}
@@ -0,0 +1,16 @@
+package com.techup.travel_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagFacetResponse {
+
+    private String tag;
+    private long count;
+}
@@ -0,0 +1,31 @@
+package com.techup.travel_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one NDJSON line of a bulk trip import.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TripImportResult {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    private long line;
+    private Status status;
+    private Long id;
+    private List<String> errors;
+}
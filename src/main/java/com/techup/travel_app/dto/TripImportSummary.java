@@ -0,0 +1,22 @@
+package com.techup.travel_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals written as the last line of a bulk trip import response.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripImportSummary {
+
+    private long lines;
+    private long created;
+    private long invalid;
+    private long failed;
+    private long durationMs;
+}
@@ -1,5 +1,6 @@
 package com.techup.travel_app.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +20,9 @@ public class TripResponse {
     private String title;
     private String description;
     private List<String> photos = new ArrayList<>();
+    // Same order as photos
+    @Builder.Default
+    private List<PhotoVariants> photoVariants = new ArrayList<>();
     private List<String> tags = new ArrayList<>();
     private Double latitude;
     private Double longitude;
@@ -27,5 +31,9 @@ public class TripResponse {
     private String authorDisplayName;
     private Instant createdAt;
     private Instant updatedAt;
+
+    // Only set by proximity search
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
 }
 
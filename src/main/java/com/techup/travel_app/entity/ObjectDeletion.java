@@ -0,0 +1,53 @@
+package com.techup.travel_app.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A bucket object queued for removal because no trip uses it any more. Rows are written in the same
+ * transaction as the trip change and removed by {@code StorageReaper} once the object is gone.
+ */
+@Entity
+@Table(name = "object_deletions", indexes = {
+        @Index(name = "idx_object_deletions_not_before", columnList = "not_before, id"),
+        @Index(name = "idx_object_deletions_object_name", columnList = "object_name")
+})
+@Data
+@NoArgsConstructor
+public class ObjectDeletion {
+
+    @Id
+    @PooledSequenceId(sequence = "object_deletions_seq")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "object_name", nullable = false, columnDefinition = "TEXT")
+    private String objectName;
+
+    // Not picked up before this time; pushed back after each failed attempt
+    @Column(name = "not_before", nullable = false)
+    private Instant notBefore;
+
+    // Set once a reaper batch has taken the row; from then on the object may already be gone
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public ObjectDeletion(String objectName, Instant notBefore) {
+        this.objectName = objectName;
+        this.notBefore = notBefore;
+    }
+}
@@ -0,0 +1,38 @@
+package com.techup.travel_app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Resized copies of one stored photo, keyed by the original's public URL. A row only exists once every
+ * variant has been uploaded, so readers never see a half-generated set.
+ */
+@Entity
+@Table(name = "photo_variants")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoVariant {
+
+    @Id
+    @Column(name = "photo_url", columnDefinition = "TEXT")
+    private String photoUrl;
+
+    @Column(name = "thumbnail_url", nullable = false, columnDefinition = "TEXT")
+    private String thumbnailUrl;
+
+    @Column(name = "card_url", nullable = false, columnDefinition = "TEXT")
+    private String cardUrl;
+
+    @Column(name = "full_url", nullable = false, columnDefinition = "TEXT")
+    private String fullUrl;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,20 @@
+package com.techup.travel_app.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sequence-backed id whose values are handed out in blocks; see {@link PooledSequenceIdGenerator}.
+ */
+@IdGeneratorType(PooledSequenceIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequenceId {
+
+    // Database sequence the blocks are allocated from
+    String sequence();
+}
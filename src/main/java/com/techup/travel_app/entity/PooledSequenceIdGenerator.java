@@ -0,0 +1,42 @@
+package com.techup.travel_app.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Pooled-lo sequence generator: one nextval reserves {@code block-size} ids, so inserts need no round
+ * trip for their key and Hibernate can batch them. The block size comes from the
+ * {@value #BLOCK_SIZE_SETTING} setting and must equal the sequence's INCREMENT BY; Hibernate refuses to
+ * start on a mismatch rather than hand out overlapping ids.
+ * <p>
+ * Pooled-lo treats the sequence value as the first id of the block, so any writer that takes a single
+ * nextval (a psql session, a script) gets a value no block can contain.
+ */
+public class PooledSequenceIdGenerator extends SequenceStyleGenerator {
+
+    public static final String BLOCK_SIZE_SETTING = "travel.id.block-size";
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    private final String sequence;
+
+    public PooledSequenceIdGenerator(PooledSequenceId config) {
+        this.sequence = config.sequence();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Object blockSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSettings()
+                .getOrDefault(BLOCK_SIZE_SETTING, DEFAULT_BLOCK_SIZE);
+        parameters.put(SEQUENCE_PARAM, sequence);
+        parameters.put(INCREMENT_PARAM, blockSize.toString());
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.techup.travel_app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Index of content-addressed photos in the bucket, keyed by the SHA-256 of their bytes. refCount is
+ * the number of trip photo slots pointing at the object; lastUsedAt moves whenever an upload resolves
+ * to it, including uploads that were de-duplicated and not yet saved with a trip. deletingSince is set
+ * once the reaper has claimed the object; from then on uploads no longer resolve to it.
+ */
+@Entity
+@Table(name = "stored_objects")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredObject {
+
+    // Lowercase hex SHA-256
+    @Id
+    @Column(name = "digest", length = 64)
+    private String digest;
+
+    @Column(name = "object_name", nullable = false, columnDefinition = "TEXT")
+    private String objectName;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_used_at", nullable = false)
+    private Instant lastUsedAt;
+
+    @Column(name = "deleting_since")
+    private Instant deletingSince;
+}
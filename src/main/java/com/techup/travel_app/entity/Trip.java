@@ -1,6 +1,7 @@
 package com.techup.travel_app.entity;
 
 import jakarta.persistence.*;
+import com.techup.travel_app.util.GeoHash;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,14 +15,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "trips")
+@Table(name = "trips", indexes = {
+        @Index(name = "idx_trips_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_trips_geohash", columnList = "geohash"),
+        @Index(name = "idx_trips_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_trips_author_id_updated_at", columnList = "author_id, updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Trip {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequenceId(sequence = "trips_seq")
     @Column(name = "id")
     private Long id;
 
@@ -39,12 +45,20 @@ public class Trip {
     @Column(name = "tags", columnDefinition = "TEXT[]")
     private List<String> tags = new ArrayList<>();
 
+    // Tags and description flattened for full-text search; kept in sync on every write
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
     @Column(name = "latitude")
     private Double latitude;
 
     @Column(name = "longitude")
     private Double longitude;
 
+    // Derived from latitude/longitude; "C" collation keeps B-tree range scans byte-ordered
+    @Column(name = "geohash", columnDefinition = "VARCHAR(12) COLLATE \"C\"")
+    private String geohash;
+
     @Column(name = "author_id")
     private Long authorId;
 
@@ -59,5 +73,30 @@ public class Trip {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private Instant updatedAt;
+
+    // When resized variants last became available for one of the photos. Part of the ETag, but kept
+    // apart from updated_at, which only moves when the trip itself is edited
+    @Column(name = "variants_updated_at")
+    private Instant variantsUpdatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void refreshDerivedColumns() {
+        refreshSearchText();
+        geohash = (latitude != null && longitude != null)
+                ? GeoHash.encode(latitude, longitude, GeoHash.STORED_PRECISION)
+                : null;
+    }
+
+    private void refreshSearchText() {
+        StringBuilder text = new StringBuilder();
+        if (tags != null) {
+            text.append(String.join(" ", tags));
+        }
+        if (description != null) {
+            text.append(' ').append(description);
+        }
+        searchText = text.toString().trim();
+    }
 }
 
@@ -16,7 +16,7 @@ import java.time.Instant;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequenceId(sequence = "users_seq")
     @Column(name = "id")
     private Long id;
 
@@ -0,0 +1,32 @@
+package com.techup.travel_app.event;
+
+import java.util.List;
+
+/**
+ * Published by TripService whenever a trip is created, updated or deleted. Listeners react after the
+ * surrounding transaction commits, so rolled-back writes never reach derived state.
+ */
+public record TripChangedEvent(Long tripId, Type type, List<String> previousTags, List<String> currentTags) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static TripChangedEvent created(Long tripId, List<String> tags) {
+        return new TripChangedEvent(tripId, Type.CREATED, List.of(), copyOf(tags));
+    }
+
+    public static TripChangedEvent updated(Long tripId, List<String> previousTags, List<String> currentTags) {
+        return new TripChangedEvent(tripId, Type.UPDATED, copyOf(previousTags), copyOf(currentTags));
+    }
+
+    public static TripChangedEvent deleted(Long tripId, List<String> tags) {
+        return new TripChangedEvent(tripId, Type.DELETED, copyOf(tags), List.of());
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values != null ? List.copyOf(values.stream().filter(java.util.Objects::nonNull).toList()) : List.of();
+    }
+}
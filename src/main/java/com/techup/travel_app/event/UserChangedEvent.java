@@ -0,0 +1,8 @@
+package com.techup.travel_app.event;
+
+/**
+ * Published by UserService when a user is updated or deleted. Caches keyed by the email the user had
+ * before the change, or embedding the user's email and display name, are dropped after commit.
+ */
+public record UserChangedEvent(Long userId, String previousEmail) {
+}
@@ -0,0 +1,31 @@
+package com.techup.travel_app.repository;
+
+import com.techup.travel_app.entity.ObjectDeletion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ObjectDeletionRepository extends JpaRepository<ObjectDeletion, Long> {
+
+    // Oldest due rows, locked; rows locked by another instance's reaper are skipped (lock timeout -2)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT d FROM ObjectDeletion d WHERE d.notBefore <= :now ORDER BY d.notBefore, d.id")
+    List<ObjectDeletion> claimDue(@Param("now") Instant now, Limit limit);
+
+    // Waits for a reaper that is claiming the same rows, so the caller sees whether they were taken
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM ObjectDeletion d WHERE d.objectName IN :objectNames")
+    List<ObjectDeletion> lockAllByObjectName(@Param("objectNames") Collection<String> objectNames);
+}
@@ -0,0 +1,9 @@
+package com.techup.travel_app.repository;
+
+import com.techup.travel_app.entity.PhotoVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PhotoVariantRepository extends JpaRepository<PhotoVariant, String> {
+}
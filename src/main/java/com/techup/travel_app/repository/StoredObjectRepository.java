@@ -0,0 +1,39 @@
+package com.techup.travel_app.repository;
+
+import com.techup.travel_app.entity.StoredObject;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, String> {
+
+    // Marks a known object as just uploaded again; 0 if the digest is not indexed or being deleted
+    @Modifying
+    @Query("update StoredObject o set o.lastUsedAt = :now where o.digest = :digest and o.deletingSince is null")
+    int touch(@Param("digest") String digest, @Param("now") Instant now);
+
+    // Never goes below zero, e.g. for references saved before the object was indexed
+    @Modifying
+    @Query("""
+            update StoredObject o
+            set o.refCount = case when o.refCount + :delta < 0 then 0 else o.refCount + :delta end
+            where o.digest in :digests
+            """)
+    int adjustRefCount(@Param("digests") Collection<String> digests, @Param("delta") int delta);
+
+    boolean existsByDigestAndDeletingSinceIsNotNull(String digest);
+
+    // Held by the reaper while it decides, so a concurrent reuse either lands first or misses
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StoredObject o WHERE o.digest IN :digests")
+    List<StoredObject> lockAllByDigest(@Param("digests") Collection<String> digests);
+}
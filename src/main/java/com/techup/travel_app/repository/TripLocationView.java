@@ -0,0 +1,10 @@
+package com.techup.travel_app.repository;
+
+public interface TripLocationView {
+
+    Long getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
@@ -1,16 +1,75 @@
 package com.techup.travel_app.repository;
 
 import com.techup.travel_app.entity.Trip;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TripRepository extends JpaRepository<Trip, Long> {
+public interface TripRepository extends JpaRepository<Trip, Long>, JpaSpecificationExecutor<Trip> {
     
     List<Trip> findByAuthorId(Long authorId);
+
+    // Whether any trip lists this photo URL; backed by idx_trips_photos on Postgres
+    @Query("SELECT count(t) > 0 FROM Trip t WHERE array_contains(t.photos, :url)")
+    boolean existsByPhoto(@Param("url") String url);
     
-    List<Trip> findByTitleContainingIgnoreCase(String title);
-}
 
+    // Keyset pagination on (created_at, id), newest first; backed by idx_trips_created_at_id
+    @Query("SELECT t FROM Trip t ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trip> findLatest(Limit limit);
+
+    @Query("SELECT t FROM Trip t " +
+            "WHERE t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trip> findLatestBefore(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    // Relevance-ranked full-text search over title, tags and description; backed by idx_trips_search
+    @Query("SELECT t FROM Trip t WHERE trip_search_matches(t.title, t.searchText, :query) " +
+            "ORDER BY trip_search_rank(t.title, t.searchText, :query) DESC, t.createdAt DESC, t.id DESC")
+    Slice<Trip> searchRanked(@Param("query") String query, Pageable pageable);
+
+    // Rows written before the geohash column existed; filled in by GeohashBackfillRunner
+    @Query("SELECT t.id AS id, t.latitude AS latitude, t.longitude AS longitude FROM Trip t " +
+           "WHERE t.geohash IS NULL AND t.latitude IS NOT NULL AND t.longitude IS NOT NULL ORDER BY t.id")
+    List<TripLocationView> findMissingGeohash(Limit limit);
+
+    // Writes only the geohash column: unlike a dirty entity, this leaves updated_at (and the ETag) alone
+    @Modifying
+    @Query("UPDATE Trip t SET t.geohash = :geohash WHERE t.id = :id AND t.geohash IS NULL")
+    int setGeohash(@Param("id") Long id, @Param("geohash") String geohash);
+
+    // Id-ordered keyset scan over the primary key, used by the bulk export
+    @Query("SELECT t FROM Trip t WHERE t.id > :afterId ORDER BY t.id")
+    List<Trip> findAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    // Portable id-ordered scan of the tags column, used to seed the in-memory tag facets
+    @Query("SELECT t.id AS id, t.tags AS tags FROM Trip t WHERE t.id > :afterId ORDER BY t.id")
+    List<TripTagsView> findTagsAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    // Every trip showing a photo, e.g. one stored once and shared by content address; backed by idx_trips_photos
+    @Query("SELECT t.id FROM Trip t WHERE array_contains(t.photos, :url)")
+    List<Long> findIdsByPhoto(@Param("url") String url);
+
+    // Moves the trips' ETags when photo variants appear, without loading the rows or touching updated_at
+    @Modifying
+    @Query("UPDATE Trip t SET t.variantsUpdatedAt = :at WHERE t.id IN :ids")
+    int markVariantsUpdated(@Param("ids") Collection<Long> ids, @Param("at") Instant at);
+
+    // Validators for conditional GETs: answered from indexes without loading or mapping trips
+    @Query("SELECT t.updatedAt AS updatedAt, t.variantsUpdatedAt AS variantsUpdatedAt, " +
+            "u.email AS authorEmail, u.displayName AS authorDisplayName " +
+            "FROM Trip t LEFT JOIN t.author u WHERE t.id = :id")
+    Optional<TripVersionView> findVersionById(@Param("id") Long id);
+}
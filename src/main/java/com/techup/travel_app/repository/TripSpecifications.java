@@ -0,0 +1,90 @@
+package com.techup.travel_app.repository;
+
+import com.techup.travel_app.entity.Trip;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public final class TripSpecifications {
+
+    private TripSpecifications() {
+    }
+
+    /**
+     * Trips whose geohash starts with any of the given cells. Each prefix becomes a
+     * [cell, cell + '{') range so the B-tree index on geohash serves every branch of the OR
+     * ('{' sorts right after 'z', the last geohash character).
+     */
+    public static Specification<Trip> inGeohashCells(Collection<String> cells) {
+        return (root, query, cb) -> {
+            Predicate[] ranges = cells.stream()
+                    .map(cell -> cb.and(
+                            cb.greaterThanOrEqualTo(root.get("geohash"), cell),
+                            cb.lessThan(root.get("geohash"), cell + "{")))
+                    .toArray(Predicate[]::new);
+            return cb.or(ranges);
+        };
+    }
+
+    /**
+     * Trips tagged with all (or any) of the given tags. Each tag is an array_contains check, which
+     * renders as {@code tags @> ARRAY[?]} on PostgreSQL and so is served by the GIN index idx_trips_tags.
+     */
+    public static Specification<Trip> hasTags(Collection<String> tags, boolean matchAll) {
+        return (root, query, cb) -> {
+            Predicate[] contains = tags.stream()
+                    .map(tag -> cb.isTrue(cb.function("array_contains", Boolean.class, root.get("tags"), cb.literal(tag))))
+                    .toArray(Predicate[]::new);
+            return matchAll ? cb.and(contains) : cb.or(contains);
+        };
+    }
+
+    // Keyset position on (created_at, id), newest first, matching TripRepository.findLatestBefore
+    public static Specification<Trip> before(Instant createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    public static Specification<Trip> hasCoordinates() {
+        return (root, query, cb) -> cb.and(
+                cb.isNotNull(root.get("latitude")),
+                cb.isNotNull(root.get("longitude")));
+    }
+
+    /**
+     * Trips inside the latitude/longitude box around a search circle, slightly enlarged so no trip in
+     * the circle is missed. The longitude bounds are dropped where the box would cross the antimeridian
+     * or reach a pole.
+     */
+    public static Specification<Trip> withinBoundingBox(double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / 111.0;
+        double edgeLatitude = Math.abs(latitude) + latDelta;
+        double lngDelta = edgeLatitude < 89.0 ? radiusKm / (111.0 * Math.cos(Math.toRadians(edgeLatitude))) : 360;
+        return (root, query, cb) -> {
+            Predicate box = cb.between(root.get("latitude"), latitude - latDelta, latitude + latDelta);
+            if (longitude - lngDelta >= -180 && longitude + lngDelta <= 180) {
+                box = cb.and(box, cb.between(root.get("longitude"), longitude - lngDelta, longitude + lngDelta));
+            }
+            return cb.and(box, cb.isNotNull(root.get("longitude")));
+        };
+    }
+
+    /**
+     * Orders trips by squared planar distance in degrees from the point, longitude scaled at its
+     * latitude. Only an approximation (it ignores the antimeridian and the poles), good enough to
+     * choose which candidates to keep when their number is capped; callers rank exactly afterwards.
+     */
+    public static Specification<Trip> nearestFirst(double latitude, double longitude) {
+        double lngScale = Math.cos(Math.toRadians(latitude));
+        return (root, query, cb) -> {
+            Expression<Double> dLat = cb.diff(root.get("latitude"), latitude);
+            Expression<Double> dLng = cb.prod(cb.diff(root.<Double>get("longitude"), longitude), lngScale);
+            query.orderBy(cb.asc(cb.sum(cb.prod(dLat, dLat), cb.prod(dLng, dLng))));
+            return null;
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.techup.travel_app.repository;
+
+import java.util.List;
+
+public interface TripTagsView {
+
+    Long getId();
+
+    List<String> getTags();
+}
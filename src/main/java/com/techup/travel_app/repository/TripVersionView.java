@@ -0,0 +1,17 @@
+package com.techup.travel_app.repository;
+
+import java.time.Instant;
+
+/**
+ * The columns a trip detail response depends on that can change, used to validate HTTP caches.
+ */
+public interface TripVersionView {
+
+    Instant getUpdatedAt();
+
+    Instant getVariantsUpdatedAt();
+
+    String getAuthorEmail();
+
+    String getAuthorDisplayName();
+}
@@ -1,22 +1,76 @@
 package com.techup.travel_app.security;
 
 import com.techup.travel_app.entity.User;
-import lombok.AllArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
-@AllArgsConstructor
 public class CustomUserDetails implements UserDetails {
 
-    private User user;
+    public static final String DEFAULT_ROLE = "ROLE_USER";
+    public static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    private final User user;
+    private final List<GrantedAuthority> authorities;
+
+    public CustomUserDetails(User user) {
+        this(user, Collections.singletonList(new SimpleGrantedAuthority(DEFAULT_ROLE)));
+    }
+
+    /**
+     * A regular user who may also reach the admin-only operational endpoints.
+     */
+    public static CustomUserDetails admin(User user) {
+        return new CustomUserDetails(user, List.of(new SimpleGrantedAuthority(DEFAULT_ROLE), new SimpleGrantedAuthority(ADMIN_ROLE)));
+    }
+
+    private CustomUserDetails(User user, List<GrantedAuthority> authorities) {
+        this.user = user;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Builds a principal from verified token claims without touching the database.
+     * The backing user only carries id and email; the password hash is never available here.
+     */
+    public static CustomUserDetails fromClaims(Long userId, String email, Collection<String> roles) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(email);
+
+        List<GrantedAuthority> authorities = roles == null || roles.isEmpty()
+                ? Collections.singletonList(new SimpleGrantedAuthority(DEFAULT_ROLE))
+                : roles.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+        return new CustomUserDetails(user, authorities);
+    }
+
+    /**
+     * Id of the authenticated user on the current thread; throws AccessDeniedException if there is none.
+     */
+    public static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new AccessDeniedException("Authentication required.");
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof CustomUserDetails customUserDetails) {
+            return customUserDetails.getUserId();
+        }
+
+        throw new AccessDeniedException("Unable to determine current user.");
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        return authorities;
     }
 
     @Override
@@ -53,4 +107,3 @@ public class CustomUserDetails implements UserDetails {
         return user.getId();
     }
 }
-
@@ -1,24 +1,99 @@
 package com.techup.travel_app.security;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.techup.travel_app.entity.User;
+import com.techup.travel_app.event.UserChangedEvent;
 import com.techup.travel_app.repository.UserRepository;
+import com.techup.travel_app.util.CacheLoads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, MeterBinder {
 
     private final UserRepository userRepository;
 
+    // Bounded cache of users by email for lookups that need the entity (legacy tokens, login); 0 disables
+    @Value("${security.user-cache.max-size:0}")
+    private long userCacheMaxSize;
+
+    @Value("${security.user-cache.ttl:5m}")
+    private Duration userCacheTtl;
+
+    // Emails granted ROLE_ADMIN; the role travels in the access token like any other
+    @Value("${security.admin-emails:}")
+    private Set<String> adminEmails;
+
+    private AsyncCache<String, User> userCache;
+
+    @PostConstruct
+    void init() {
+        adminEmails = adminEmails.stream()
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        if (userCacheMaxSize > 0) {
+            userCache = Caffeine.newBuilder()
+                    .maximumSize(userCacheMaxSize)
+                    .expireAfterWrite(userCacheTtl)
+                    .recordStats()
+                    .buildAsync();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (userCache != null) {
+            CaffeineCacheMetrics.monitor(registry, userCache, "users");
+        }
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        return new CustomUserDetails(user);
+        User user = userCache != null
+                ? CacheLoads.getOrLoad(userCache, email, this::findUser)
+                : findUser(email);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return adminEmails.contains(user.getEmail().toLowerCase(Locale.ROOT))
+                ? CustomUserDetails.admin(user)
+                : new CustomUserDetails(user);
+    }
+
+    /**
+     * Drops a cached user so the next lookup sees its current email, password hash and existence.
+     */
+    public void evict(String email) {
+        if (userCache != null && email != null) {
+            userCache.synchronous().invalidate(email);
+        }
     }
-}
 
+    // After commit, so a concurrent lookup cannot cache the row as it was before the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.previousEmail());
+    }
+
+    private User findUser(String email) {
+        // Misses return null so Caffeine does not cache unknown emails
+        return userRepository.findByEmail(email).orElse(null);
+    }
+}
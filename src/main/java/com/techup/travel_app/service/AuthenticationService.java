@@ -6,6 +6,7 @@ import com.techup.travel_app.entity.User;
 import com.techup.travel_app.repository.UserRepository;
 import com.techup.travel_app.security.CustomUserDetails;
 import com.techup.travel_app.util.JwtUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "travel.service", description = "Service method latency")
 public class AuthenticationService {
 
     private final AuthenticationManager authenticationManager;
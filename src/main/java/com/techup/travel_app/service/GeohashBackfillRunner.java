@@ -0,0 +1,49 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.repository.TripLocationView;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.util.GeoHash;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills the geohash column for trips created before proximity search existed, in small batches.
+ * Only the geohash column is written, so updated_at and the trips' ETags stay as they were.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeohashBackfillRunner implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final TripRepository tripRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int total = 0;
+        int updated;
+        do {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<TripLocationView> trips = tripRepository.findMissingGeohash(Limit.of(BATCH_SIZE));
+                trips.forEach(trip -> tripRepository.setGeohash(trip.getId(),
+                        GeoHash.encode(trip.getLatitude(), trip.getLongitude(), GeoHash.STORED_PRECISION)));
+                return trips.size();
+            });
+            updated = batch != null ? batch : 0;
+            total += updated;
+        } while (updated == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Backfilled geohash for {} trip(s)", total);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.entity.ObjectDeletion;
+import com.techup.travel_app.repository.ObjectDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Durable queue of bucket objects to remove; drained by {@link StorageReaper}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ObjectDeletionQueue {
+
+    private final ObjectDeletionRepository objectDeletionRepository;
+
+    // Removed photos stay a while longer, so pages rendered just before the change still load them
+    @Value("${storage.gc.delay:10m}")
+    private Duration delay;
+
+    /**
+     * Queues object names for deletion. Joins the caller's transaction, so a trip change and the
+     * removal of the photos it dropped commit or roll back together.
+     */
+    @Transactional
+    public void enqueue(Collection<String> objectNames) {
+        if (objectNames.isEmpty()) {
+            return;
+        }
+        Instant notBefore = Instant.now().plus(delay);
+        objectDeletionRepository.saveAll(objectNames.stream()
+                .distinct()
+                .map(objectName -> new ObjectDeletion(objectName, notBefore))
+                .toList());
+    }
+
+    /**
+     * Withdraws queued deletions of objects a trip shows again, e.g. a photo removed and then added
+     * back. Joins the caller's transaction and locks the rows, so a concurrent reaper either skips
+     * them or has claimed them first; in that case the object may already be gone and the trip write
+     * fails. Call before the write touches stored_objects, which the reaper locks after these rows.
+     */
+    @Transactional
+    public void cancel(Collection<String> objectNames) {
+        if (objectNames.isEmpty()) {
+            return;
+        }
+        List<ObjectDeletion> queued = objectDeletionRepository.lockAllByObjectName(Set.copyOf(objectNames));
+        for (ObjectDeletion deletion : queued) {
+            if (deletion.getClaimedAt() != null) {
+                throw new RuntimeException("Photo is being removed from storage; upload it again: " + deletion.getObjectName());
+            }
+        }
+        objectDeletionRepository.deleteAllInBatch(queued);
+    }
+}
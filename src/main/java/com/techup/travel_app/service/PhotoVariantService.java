@@ -0,0 +1,199 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.entity.PhotoVariant;
+import com.techup.travel_app.repository.PhotoVariantRepository;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.util.ImageResizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generates resized JPEG variants of uploaded trip photos in the background. Each photo is downloaded
+ * and decoded once; the variants are scaled largest first, each from the previous one, and stored next
+ * to the original. Once all of them are uploaded a {@link PhotoVariant} row is written, and every trip
+ * showing the photo gets a new variants_updated_at and is dropped from {@link TripCache}, so cached
+ * responses and ETags pick the variants up. The trips' updated_at is left alone.
+ * <p>
+ * Work runs on a small fixed pool of platform threads (decoding is CPU and memory heavy) behind a
+ * bounded queue. When the queue is full the photo is skipped and keeps being served as the original.
+ */
+@Service
+@Slf4j
+public class PhotoVariantService {
+
+    public enum Variant {
+        FULL(1600, 0.85f),
+        CARD(800, 0.80f),
+        THUMBNAIL(320, 0.75f);
+
+        final int maxEdge;
+        final float quality;
+
+        Variant(int maxEdge, float quality) {
+            this.maxEdge = maxEdge;
+            this.quality = quality;
+        }
+
+        // e.g. trips/<uuid>-beach.png -> trips/<uuid>-beach.png.card.jpg
+        String objectName(String originalObjectName) {
+            return originalObjectName + "." + name().toLowerCase(Locale.ROOT) + ".jpg";
+        }
+    }
+
+    private final SupabaseStorageService storageService;
+    private final PhotoVariantRepository photoVariantRepository;
+    private final TripRepository tripRepository;
+    private final TripCache tripCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PhotoVariantService(
+            SupabaseStorageService storageService,
+            PhotoVariantRepository photoVariantRepository,
+            TripRepository tripRepository,
+            TripCache tripCache,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${photo.variants.enabled:true}") boolean enabled,
+            @Value("${photo.variants.workers:2}") int workers,
+            @Value("${photo.variants.queue-capacity:200}") int queueCapacity
+    ) {
+        this.storageService = storageService;
+        this.photoVariantRepository = photoVariantRepository;
+        this.tripRepository = tripRepository;
+        this.tripCache = tripCache;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().name("photo-variants-", 0).daemon(true).factory());
+
+        Gauge.builder("photo.variants.queue", queue, BlockingQueue::size)
+                .description("Photos waiting for variant generation")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("photo.variants.rejected")
+                .description("Photos skipped because the variant queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues variant generation for the given photos; returns immediately. Photos outside our bucket
+     * are ignored. Call after the transaction saving the trip that shows them has committed.
+     */
+    public void generateVariants(List<String> photoUrls) {
+        if (!enabled || photoUrls == null) {
+            return;
+        }
+        for (String photoUrl : photoUrls) {
+            if (!storageService.isBucketUrl(photoUrl)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> process(photoUrl));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                log.warn("Photo variant queue is full; {} will be served without variants", photoUrl);
+            }
+        }
+    }
+
+    /**
+     * Generated variants for the given photo URLs, keyed by URL, in one query. Photos without variants
+     * (not yet processed, unsupported or external) are absent.
+     */
+    public Map<String, PhotoVariant> findByPhotoUrls(Collection<String> photoUrls) {
+        if (photoUrls.isEmpty()) {
+            return Map.of();
+        }
+        return photoVariantRepository.findAllById(photoUrls).stream()
+                .collect(Collectors.toMap(PhotoVariant::getPhotoUrl, Function.identity()));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Queued photos are dropped; they stay available as originals
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void process(String photoUrl) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            // Already done, e.g. the same stored photo kept across a trip update
+            if (photoVariantRepository.existsById(photoUrl)) {
+                outcome = "skipped";
+                return;
+            }
+            BufferedImage image = storageService.readObject(photoUrl,
+                    content -> ImageResizer.decode(content, Variant.FULL.maxEdge));
+            if (image == null) {
+                outcome = "unsupported";
+                log.info("No decoder for {}; it will be served without variants", photoUrl);
+                return;
+            }
+
+            String originalObjectName = storageService.toObjectName(photoUrl);
+            PhotoVariant variants = new PhotoVariant();
+            variants.setPhotoUrl(photoUrl);
+            for (Variant variant : Variant.values()) {
+                image = ImageResizer.scaleToFit(image, variant.maxEdge);
+                String url = storageService.uploadObject(variant.objectName(originalObjectName),
+                        ImageResizer.encodeJpeg(image, variant.quality), MediaType.IMAGE_JPEG);
+                switch (variant) {
+                    case FULL -> variants.setFullUrl(url);
+                    case CARD -> variants.setCardUrl(url);
+                    case THUMBNAIL -> variants.setThumbnailUrl(url);
+                }
+            }
+
+            // A content-addressed photo may be shown by several trips, not just the one it was uploaded for
+            List<Long> tripIds = transactionTemplate.execute(status -> {
+                photoVariantRepository.save(variants);
+                List<Long> ids = tripRepository.findIdsByPhoto(photoUrl);
+                if (!ids.isEmpty()) {
+                    tripRepository.markVariantsUpdated(ids, Instant.now());
+                }
+                return ids;
+            });
+            tripIds.forEach(tripCache::invalidate);
+            outcome = "success";
+        } catch (Exception e) {
+            log.warn("Failed to generate variants for {}: {}", photoUrl, e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder("photo.variants")
+                    .description("Time to generate and store the variants of one photo")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.entity.ObjectDeletion;
+import com.techup.travel_app.entity.StoredObject;
+import com.techup.travel_app.repository.ObjectDeletionRepository;
+import com.techup.travel_app.repository.PhotoVariantRepository;
+import com.techup.travel_app.repository.StoredObjectRepository;
+import com.techup.travel_app.repository.TripRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the {@link ObjectDeletionQueue}: every run removes due objects, together with their photo
+ * variants, in batches of one bulk storage call each, spaced to stay under a call rate.
+ * <p>
+ * An object is only deleted if no trip shows it any more and, for content-addressed photos, its
+ * reference count is zero and no upload has reused it within the grace period. Failed batches are
+ * retried with exponential backoff; rows are claimed with SKIP LOCKED and then leased, so several
+ * instances can run the reaper side by side.
+ */
+@Component
+@Slf4j
+public class StorageReaper {
+
+    private final ObjectDeletionRepository objectDeletionRepository;
+    private final StoredObjectRepository storedObjectRepository;
+    private final PhotoVariantRepository photoVariantRepository;
+    private final TripRepository tripRepository;
+    private final SupabaseStorageService storageService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter deleted;
+    private final Counter kept;
+    private final Counter failures;
+
+    @Value("${storage.gc.enabled:true}")
+    private boolean enabled;
+
+    // Queue rows per storage call; each row also covers the photo's variant objects
+    @Value("${storage.gc.batch-size:100}")
+    private int batchSize;
+
+    @Value("${storage.gc.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${storage.gc.max-calls-per-second:2}")
+    private double maxCallsPerSecond;
+
+    // Content-addressed objects reused by an upload this recently may be about to be saved with a trip
+    @Value("${storage.gc.reuse-grace:1h}")
+    private Duration reuseGrace;
+
+    // How long claimed rows stay reserved for the batch that claimed them
+    @Value("${storage.gc.claim-lease:15m}")
+    private Duration claimLease;
+
+    @Value("${storage.gc.retry.initial-backoff:1m}")
+    private Duration initialBackoff;
+
+    @Value("${storage.gc.retry.max-backoff:6h}")
+    private Duration maxBackoff;
+
+    private long nextCallAt;
+
+    public StorageReaper(
+            ObjectDeletionRepository objectDeletionRepository,
+            StoredObjectRepository storedObjectRepository,
+            PhotoVariantRepository photoVariantRepository,
+            TripRepository tripRepository,
+            SupabaseStorageService storageService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectDeletionRepository = objectDeletionRepository;
+        this.storedObjectRepository = storedObjectRepository;
+        this.photoVariantRepository = photoVariantRepository;
+        this.tripRepository = tripRepository;
+        this.storageService = storageService;
+        this.transactionTemplate = transactionTemplate;
+        this.deleted = Counter.builder("storage.gc.deleted")
+                .description("Objects removed from the bucket by the reaper, variants included")
+                .register(meterRegistry);
+        this.kept = Counter.builder("storage.gc.kept")
+                .description("Queued objects dropped from the queue because they are in use again")
+                .register(meterRegistry);
+        this.failures = Counter.builder("storage.gc.failures")
+                .description("Bulk delete calls that failed and were rescheduled")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.gc.interval:30s}", initialDelayString = "${storage.gc.interval:30s}")
+    public void reap() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int batches = 0;
+            int claimed;
+            do {
+                claimed = reapBatch();
+                batches++;
+            } while (claimed == batchSize && batches < maxBatchesPerRun);
+        } catch (RuntimeException e) {
+            log.error("Storage reaper run failed", e);
+        }
+    }
+
+    /**
+     * Processes one batch of due queue rows and returns how many were claimed, or -1 if the storage
+     * call failed (the rest of the run is skipped so a struggling storage backend is not hammered).
+     * <p>
+     * Claiming and finishing are two short transactions; no row locks or connection are held while
+     * the storage call runs. Claimed rows are leased until the batch finishes, and claimed
+     * content-addressed objects are marked as being deleted so uploads stop resolving to them.
+     */
+    int reapBatch() {
+        Batch batch = transactionTemplate.execute(status -> claim(Instant.now()));
+        if (batch == null || batch.deletionIds().isEmpty()) {
+            return batch != null ? batch.claimed() : 0;
+        }
+
+        throttle();
+        try {
+            storageService.deleteObjects(batch.objectNames());
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> reschedule(batch, e));
+            return -1;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            objectDeletionRepository.deleteAllByIdInBatch(batch.deletionIds());
+            storedObjectRepository.deleteAllByIdInBatch(batch.digests());
+            photoVariantRepository.deleteAllByIdInBatch(batch.photoUrls());
+        });
+        deleted.increment(batch.objectNames().size());
+        log.info("Reaped {} orphaned photo(s) ({} object(s) with variants)",
+                batch.deletionIds().size(), batch.objectNames().size());
+        return batch.claimed();
+    }
+
+    private Batch claim(Instant now) {
+        List<ObjectDeletion> due = objectDeletionRepository.claimDue(now, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return new Batch(0, List.of(), List.of(), List.of(), List.of());
+        }
+
+        Set<String> inUse = photosInUse(due);
+        Map<String, StoredObject> storedByDigest = storedObjectRepository.lockAllByDigest(due.stream()
+                        .map(deletion -> StoredObjectService.digestOf(deletion.getObjectName()))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(StoredObject::getDigest, Function.identity()));
+
+        List<ObjectDeletion> stale = new ArrayList<>();
+        List<Long> deletionIds = new ArrayList<>();
+        Set<String> objectNames = new LinkedHashSet<>();
+        Set<String> photoUrls = new HashSet<>();
+        Set<String> digests = new HashSet<>();
+        for (ObjectDeletion deletion : due) {
+            String objectName = deletion.getObjectName();
+            String url = storageService.publicUrl(objectName);
+            StoredObject stored = storedByDigest.get(StoredObjectService.digestOf(objectName));
+            if (inUse.contains(url) || (stored != null && stored.getRefCount() > 0)) {
+                stale.add(deletion);
+                if (stored != null) {
+                    stored.setDeletingSince(null);
+                }
+                continue;
+            }
+            // Already marked by an earlier claim: no upload can have reused it since
+            if (stored != null && stored.getDeletingSince() == null
+                    && stored.getLastUsedAt().isAfter(now.minus(reuseGrace))) {
+                deletion.setNotBefore(stored.getLastUsedAt().plus(reuseGrace));
+                continue;
+            }
+            // Leased until the batch finishes; if this instance dies first, the row is claimed again.
+            // Marked claimed for good: trip writes can no longer withdraw it (ObjectDeletionQueue.cancel)
+            deletion.setNotBefore(now.plus(claimLease));
+            deletion.setClaimedAt(now);
+            deletionIds.add(deletion.getId());
+            objectNames.add(objectName);
+            for (PhotoVariantService.Variant variant : PhotoVariantService.Variant.values()) {
+                objectNames.add(variant.objectName(objectName));
+            }
+            photoUrls.add(url);
+            if (stored != null) {
+                if (stored.getDeletingSince() == null) {
+                    stored.setDeletingSince(now);
+                }
+                digests.add(stored.getDigest());
+            }
+        }
+        objectDeletionRepository.deleteAllInBatch(stale);
+        kept.increment(stale.size());
+        return new Batch(due.size(), deletionIds, new ArrayList<>(objectNames),
+                new ArrayList<>(photoUrls), new ArrayList<>(digests));
+    }
+
+    // URLs among the batch that some trip still lists, e.g. a photo removed and then added back.
+    // One indexed lookup per row; the batch is small and this runs in the background
+    private Set<String> photosInUse(Collection<ObjectDeletion> due) {
+        return due.stream()
+                .map(deletion -> storageService.publicUrl(deletion.getObjectName()))
+                .distinct()
+                .filter(tripRepository::existsByPhoto)
+                .collect(Collectors.toSet());
+    }
+
+    // Rows and content-addressed objects stay marked: the failed call may have removed some of them already
+    private void reschedule(Batch batch, RuntimeException e) {
+        failures.increment();
+        Instant now = Instant.now();
+        List<ObjectDeletion> deletions = objectDeletionRepository.findAllById(batch.deletionIds());
+        for (ObjectDeletion deletion : deletions) {
+            deletion.setAttempts(deletion.getAttempts() + 1);
+            deletion.setLastError(e.getMessage());
+            deletion.setNotBefore(now.plus(backoff(deletion.getAttempts())));
+        }
+        log.warn("Failed to delete {} orphaned photo(s); retrying with backoff: {}", deletions.size(), e.getMessage());
+    }
+
+    // initial * 2^(attempts - 1), capped
+    Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    // Spaces storage calls at least 1 / max-calls-per-second apart
+    private void throttle() {
+        long now = System.nanoTime();
+        if (nextCallAt - now > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nextCallAt - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        nextCallAt = System.nanoTime() + (long) (TimeUnit.SECONDS.toNanos(1) / maxCallsPerSecond);
+    }
+
+    private record Batch(int claimed, List<Long> deletionIds, List<String> objectNames,
+                         List<String> photoUrls, List<String> digests) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.entity.StoredObject;
+import com.techup.travel_app.repository.StoredObjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Digest index and reference counts for content-addressed photos ({@code trips/sha256/<digest>}).
+ * Uploads consult the index to skip objects the bucket already holds; trip writes keep the counts in
+ * step with the photos they reference, so an object shared by several trips is known to be in use.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoredObjectService {
+
+    static final String OBJECT_NAME_PREFIX = "trips/sha256/";
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("(?:^|/)trips/sha256/([0-9a-f]{64})$");
+
+    private final StoredObjectRepository storedObjectRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public static String objectName(String digest) {
+        return OBJECT_NAME_PREFIX + digest;
+    }
+
+    /**
+     * Digest of a content-addressed object name or public URL; null for anything else (UUID-named
+     * uploads, variants, external links).
+     */
+    public static String digestOf(String objectNameOrUrl) {
+        if (objectNameOrUrl == null) {
+            return null;
+        }
+        Matcher matcher = CONTENT_ADDRESSED.matcher(objectNameOrUrl);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * True if the digest is indexed, i.e. the bucket already holds these bytes. Also marks the object
+     * as recently used, which keeps it from being collected before the new reference is saved.
+     */
+    @Transactional
+    public boolean reuse(String digest) {
+        return storedObjectRepository.touch(digest, Instant.now()) > 0;
+    }
+
+    /**
+     * True if the reaper has claimed the object and may be deleting it right now; new bytes must not be
+     * written under its name until the index row is gone.
+     */
+    @Transactional(readOnly = true)
+    public boolean isBeingDeleted(String digest) {
+        return storedObjectRepository.existsByDigestAndDeletingSinceIsNotNull(digest);
+    }
+
+    /**
+     * Indexes an object that is now in the bucket. Registering a digest twice (concurrent uploads of
+     * the same bytes) is harmless.
+     */
+    public void register(String digest, long sizeBytes, String contentType) {
+        Instant now = Instant.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (storedObjectRepository.touch(digest, now) == 0) {
+                    storedObjectRepository.save(new StoredObject(digest, objectName(digest), sizeBytes, contentType, 0, null, now, null));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Object {} was indexed by a concurrent upload", digest);
+        }
+    }
+
+    /**
+     * Moves reference counts from the photos a trip had to the photos it has now. Call inside the
+     * transaction that writes the trip; photos that are not content-addressed are ignored.
+     */
+    @Transactional
+    public void updateReferences(Collection<String> before, Collection<String> after) {
+        Map<String, Integer> deltas = new HashMap<>();
+        if (after != null) {
+            after.forEach(url -> addDelta(deltas, url, 1));
+        }
+        if (before != null) {
+            before.forEach(url -> addDelta(deltas, url, -1));
+        }
+
+        // One statement per distinct delta, normally just +1 and/or -1
+        Map<Integer, List<String>> digestsByDelta = new HashMap<>();
+        deltas.forEach((digest, delta) -> {
+            if (delta != 0) {
+                digestsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(digest);
+            }
+        });
+        digestsByDelta.forEach((delta, digests) -> storedObjectRepository.adjustRefCount(digests, delta));
+    }
+
+    private static void addDelta(Map<String, Integer> deltas, String url, int delta) {
+        String digest = digestOf(url);
+        if (digest != null) {
+            deltas.merge(digest, delta, Integer::sum);
+        }
+    }
+}
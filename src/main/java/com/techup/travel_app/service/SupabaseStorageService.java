@@ -1,8 +1,15 @@
 package com.techup.travel_app.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -10,13 +17,29 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +47,9 @@ import java.util.UUID;
 public class SupabaseStorageService {
 
     private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final StoredObjectService storedObjectService;
+    private final ObjectDeletionQueue objectDeletionQueue;
 
     @Value("${supabase.url:}")
     private String supabaseUrl;
@@ -34,6 +60,25 @@ public class SupabaseStorageService {
     @Value("${supabase.apiKey:}")
     private String apiKey;
 
+    @Value("${supabase.upload.concurrency:4}")
+    private int uploadConcurrency;
+
+    // Streams the multipart content into the request body instead of reading it into a byte[] first
+    @Value("${supabase.upload.streaming:true}")
+    private boolean streamingUploads;
+
+    // Names uploads trips/sha256/<digest of the bytes> and skips bytes the bucket already holds
+    @Value("${supabase.upload.content-addressed:false}")
+    private boolean contentAddressed;
+
+    // On a digest index miss, asks the bucket (HEAD) before uploading, e.g. for objects stored
+    // by an upload whose index row was never written
+    @Value("${supabase.upload.check-bucket:true}")
+    private boolean checkBucket;
+
+    private final ExecutorService uploadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Timed(value = "travel.service", description = "Service method latency")
     public List<String> uploadTripPhotos(List<MultipartFile> photos) {
         List<String> uploaded = new ArrayList<>();
         if (photos == null || photos.isEmpty()) {
@@ -41,21 +86,55 @@ public class SupabaseStorageService {
             return uploaded;
         }
 
-        log.info("Starting upload of {} photo(s) to Supabase Storage", photos.size());
-        
+        List<MultipartFile> files = new ArrayList<>();
         for (MultipartFile photo : photos) {
             if (photo == null || photo.isEmpty()) {
                 log.warn("Skipping empty photo");
                 continue;
             }
-            
+            files.add(photo);
+        }
+        if (files.isEmpty()) {
+            return uploaded;
+        }
+
+        log.info("Starting upload of {} photo(s) to Supabase Storage (concurrency {})", files.size(), uploadConcurrency);
+
+        // Uploads run in parallel (bounded per batch); results are collected in submission order
+        Semaphore permits = new Semaphore(Math.max(1, uploadConcurrency));
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Future<String>> futures = new ArrayList<>(files.size());
+        for (MultipartFile photo : files) {
+            futures.add(uploadExecutor.submit(() -> {
+                permits.acquire();
+                try {
+                    if (aborted.get()) {
+                        throw new CancellationException("Upload batch aborted");
+                    }
+                    String url = uploadPhoto(photo);
+                    log.info("Successfully uploaded photo: {} -> {}", photo.getOriginalFilename(), url);
+                    return url;
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            MultipartFile photo = files.get(i);
             try {
-                String url = uploadPhoto(photo);
-                uploaded.add(url);
-                log.info("Successfully uploaded photo: {} -> {}", photo.getOriginalFilename(), url);
-            } catch (Exception e) {
-                log.error("Failed to upload photo: {}", photo.getOriginalFilename(), e);
-                throw new IllegalStateException("Failed to upload photo: " + photo.getOriginalFilename() + " - " + e.getMessage(), e);
+                uploaded.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aborted.set(true);
+                abortBatch(futures);
+                throw new IllegalStateException("Interrupted while uploading photo: " + photo.getOriginalFilename(), e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("Failed to upload photo: {}", photo.getOriginalFilename(), cause);
+                aborted.set(true);
+                abortBatch(futures);
+                throw new IllegalStateException("Failed to upload photo: " + photo.getOriginalFilename() + " - " + cause.getMessage(), cause);
             }
         }
 
@@ -63,11 +142,208 @@ public class SupabaseStorageService {
         return uploaded;
     }
 
+    /**
+     * Removes objects from the bucket in a single bulk request. Accepts object names or public URLs.
+     */
+    @Timed(value = "travel.service", description = "Service method latency")
+    public void deleteObjects(List<String> objectNamesOrUrls) {
+        if (objectNamesOrUrls == null || objectNamesOrUrls.isEmpty()) {
+            return;
+        }
+        validateConfiguration();
+
+        List<String> objectNames = objectNamesOrUrls.stream()
+                .map(this::toObjectName)
+                .toList();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiKey);
+        headers.set("apikey", apiKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, List<String>>> entity = new HttpEntity<>(Map.of("prefixes", objectNames), headers);
+
+        String requestUrl = normalizeBaseUrl() + "/storage/v1/object/" + bucketName;
+        ResponseEntity<String> response;
+        try {
+            response = restTemplate.exchange(requestUrl, HttpMethod.DELETE, entity, String.class);
+        } catch (RestClientException ex) {
+            countError("delete", statusTag(ex));
+            throw ex;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            countError("delete", String.valueOf(response.getStatusCode().value()));
+            throw new IllegalStateException("Unable to delete objects from Supabase storage. Status: "
+                    + response.getStatusCode() + ", Body: " + response.getBody());
+        }
+        log.info("Deleted {} object(s) from Supabase Storage", objectNames.size());
+    }
+
+    /**
+     * Stores {@code content} under {@code objectName}, replacing any existing object, and returns its
+     * public URL. For small generated objects; user uploads go through {@link #uploadTripPhotos}.
+     */
+    @Timed(value = "travel.service", description = "Service method latency")
+    public String uploadObject(String objectName, byte[] content, MediaType contentType) {
+        validateConfiguration();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiKey);
+        headers.set("apikey", apiKey);
+        headers.add("x-upsert", "true");
+        headers.setContentType(contentType);
+        // Generated objects are never rewritten with different content under the same name
+        headers.add("Cache-Control", "max-age=31536000");
+
+        String requestUrl = normalizeBaseUrl() + "/storage/v1/object/" + bucketName + "/" + objectName;
+        ResponseEntity<String> response;
+        try {
+            response = restTemplate.exchange(requestUrl, HttpMethod.POST, new HttpEntity<>(content, headers), String.class);
+        } catch (RestClientException ex) {
+            countError("upload", statusTag(ex));
+            throw ex;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            countError("upload", String.valueOf(response.getStatusCode().value()));
+            throw new IllegalStateException("Unable to upload object to Supabase storage. Status: "
+                    + response.getStatusCode() + ", Body: " + response.getBody());
+        }
+        return publicPrefix() + objectName;
+    }
+
+    /**
+     * Streams an object from the bucket into {@code reader} without buffering it. Accepts an object
+     * name or public URL.
+     */
+    @Timed(value = "travel.service", description = "Service method latency")
+    public <T> T readObject(String objectNameOrUrl, ContentReader<T> reader) {
+        validateConfiguration();
+
+        String requestUrl = normalizeBaseUrl() + "/storage/v1/object/" + bucketName + "/" + toObjectName(objectNameOrUrl);
+        try {
+            return restTemplate.execute(requestUrl, HttpMethod.GET, request -> {
+                request.getHeaders().setBearerAuth(apiKey);
+                request.getHeaders().set("apikey", apiKey);
+            }, response -> reader.read(response.getBody()));
+        } catch (RestClientException ex) {
+            countError("download", statusTag(ex));
+            throw ex;
+        }
+    }
+
+    /**
+     * Removes photos uploaded for a save that then failed. Content-addressed photos may already be
+     * shared with other trips, so they are queued for the reaper, which checks their reference counts.
+     */
+    @Timed(value = "travel.service", description = "Service method latency")
+    public void discardUploads(List<String> urls) {
+        deleteObjects(urls.stream()
+                .filter(url -> StoredObjectService.digestOf(url) == null)
+                .toList());
+        objectDeletionQueue.enqueue(urls.stream()
+                .filter(url -> StoredObjectService.digestOf(url) != null)
+                .map(this::toObjectName)
+                .toList());
+    }
+
+    public String publicUrl(String objectName) {
+        return publicPrefix() + objectName;
+    }
+
+    public String toObjectName(String objectNameOrUrl) {
+        String publicPrefix = publicPrefix();
+        if (objectNameOrUrl.startsWith(publicPrefix)) {
+            return objectNameOrUrl.substring(publicPrefix.length());
+        }
+        return objectNameOrUrl;
+    }
+
+    // True for public URLs of objects in our bucket, as opposed to external links saved with a trip
+    public boolean isBucketUrl(String url) {
+        return url != null && StringUtils.hasText(supabaseUrl) && url.startsWith(publicPrefix());
+    }
+
+    // Waits for in-flight uploads of a failed batch (queued ones skip themselves) and removes
+    // whatever reached the bucket. In-flight requests are not interrupted: an interrupted upload
+    // may still have been stored, and we could no longer tell.
+    private void abortBatch(List<Future<String>> futures) {
+        List<String> orphans = new ArrayList<>();
+        for (Future<String> future : futures) {
+            try {
+                orphans.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | CancellationException ignored) {
+                // Failed or skipped upload: nothing stored
+            }
+        }
+        if (orphans.isEmpty()) {
+            return;
+        }
+
+        try {
+            discardUploads(orphans);
+            log.info("Removed photo(s) uploaded before the batch failed: {}", orphans);
+        } catch (Exception e) {
+            log.error("Failed to remove {} orphaned photo(s): {}", orphans.size(), orphans, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdownUploadExecutor() {
+        uploadExecutor.shutdownNow();
+    }
+
     private String uploadPhoto(MultipartFile file) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String publicUrl;
+            if (contentAddressed) {
+                validateConfiguration();
+                String digest = sha256(file);
+                String objectName = StoredObjectService.objectName(digest);
+                boolean stored = storedObjectService.reuse(digest);
+                boolean deleting = !stored && storedObjectService.isBeingDeleted(digest);
+                if (!stored && !deleting && checkBucket && objectExists(objectName)) {
+                    storedObjectService.register(digest, file.getSize(), file.getContentType());
+                    stored = true;
+                }
+                if (stored) {
+                    outcome = "deduplicated";
+                    log.info("Photo {} is already stored as {}; skipping upload", file.getOriginalFilename(), objectName);
+                    return publicPrefix() + objectName;
+                }
+                if (deleting) {
+                    // The reaper is removing these bytes; a fresh name keeps this upload out of its way
+                    publicUrl = doUploadPhoto(file, buildObjectName(file.getOriginalFilename()), "max-age=3600");
+                } else {
+                    // The name can never refer to other bytes, so caches may keep the object indefinitely
+                    publicUrl = doUploadPhoto(file, objectName, "max-age=31536000, immutable");
+                    storedObjectService.register(digest, file.getSize(), file.getContentType());
+                }
+            } else {
+                publicUrl = doUploadPhoto(file, buildObjectName(file.getOriginalFilename()), "max-age=3600");
+            }
+            outcome = "success";
+            DistributionSummary.builder("storage.upload.size")
+                    .description("Size of photos uploaded to storage")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(file.getSize());
+            return publicUrl;
+        } finally {
+            sample.stop(Timer.builder("storage.upload")
+                    .description("Duration of a single photo upload to storage")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private String doUploadPhoto(MultipartFile file, String objectName, String cacheControl) {
         validateConfiguration();
 
         try {
-            String objectName = buildObjectName(file.getOriginalFilename());
             String requestUrl = normalizeBaseUrl() + "/storage/v1/object/" + bucketName + "/" + objectName;
             
             log.info("Uploading file to Supabase: {} -> {}", file.getOriginalFilename(), objectName);
@@ -81,10 +357,11 @@ public class SupabaseStorageService {
             headers.add("x-upsert", "true");
             headers.setContentType(resolveMediaType(file.getContentType()));
             // Add cache control
-            headers.add("Cache-Control", "max-age=3600");
+            headers.add("Cache-Control", cacheControl);
 
-            byte[] fileBytes = file.getBytes();
-            HttpEntity<byte[]> entity = new HttpEntity<>(fileBytes, headers);
+            HttpEntity<?> entity = streamingUploads
+                    ? new HttpEntity<>(new MultipartFileResource(file), headers)
+                    : new HttpEntity<>(file.getBytes(), headers);
 
             log.info("Sending POST request to: {}", requestUrl);
             ResponseEntity<String> response = restTemplate.exchange(requestUrl, HttpMethod.POST, entity, String.class);
@@ -94,6 +371,7 @@ public class SupabaseStorageService {
             if (!response.getStatusCode().is2xxSuccessful()) {
                 String errorBody = response.getBody() != null ? response.getBody() : "No error body";
                 log.error("Failed to upload photo to Supabase. Status: {}, body: {}", response.getStatusCode(), errorBody);
+                countError("upload", String.valueOf(response.getStatusCode().value()));
                 
                 // Provide helpful error message
                 if (response.getStatusCode().value() == 401 || response.getStatusCode().value() == 403) {
@@ -113,8 +391,9 @@ public class SupabaseStorageService {
             String publicUrl = normalizeBaseUrl() + "/storage/v1/object/public/" + bucketName + "/" + objectName;
             log.info("Upload successful! Public URL: {}", publicUrl);
             return publicUrl;
-        } catch (org.springframework.web.client.RestClientException ex) {
+        } catch (RestClientException ex) {
             log.error("RestClient error uploading photo to Supabase: {}", ex.getMessage(), ex);
+            countError("upload", statusTag(ex));
             throw new IllegalStateException("Failed to connect to Supabase storage: " + ex.getMessage(), ex);
         } catch (IOException ex) {
             log.error("IO error reading photo bytes: {}", ex.getMessage(), ex);
@@ -122,6 +401,60 @@ public class SupabaseStorageService {
         }
     }
 
+    // Reads the part once through the digest; it is already spooled locally, so the upload that may
+    // follow reads it a second time from memory or disk rather than from the client
+    private static String sha256(MultipartFile file) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to read photo bytes: " + ex.getMessage(), ex);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Anything but a 2xx counts as absent, so a failed check only costs an upload
+    private boolean objectExists(String objectName) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiKey);
+        headers.set("apikey", apiKey);
+
+        String requestUrl = normalizeBaseUrl() + "/storage/v1/object/" + bucketName + "/" + objectName;
+        try {
+            return restTemplate.exchange(requestUrl, HttpMethod.HEAD, new HttpEntity<>(headers), Void.class)
+                    .getStatusCode().is2xxSuccessful();
+        } catch (RestClientException ex) {
+            // Missing objects answer 400 or 404 depending on the storage version
+            if (!(ex instanceof RestClientResponseException responseException
+                    && responseException.getStatusCode().is4xxClientError())) {
+                countError("head", statusTag(ex));
+            }
+            return false;
+        }
+    }
+
+    private void countError(String operation, String status) {
+        Counter.builder("storage.errors")
+                .description("Failed storage requests by operation and HTTP status")
+                .tag("operation", operation)
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // HTTP status for error responses; connection failures and timeouts have none
+    private static String statusTag(RestClientException ex) {
+        if (ex instanceof RestClientResponseException responseException) {
+            return String.valueOf(responseException.getStatusCode().value());
+        }
+        return "IO_ERROR";
+    }
+
     private MediaType resolveMediaType(String contentType) {
         if (StringUtils.hasText(contentType)) {
             return MediaType.parseMediaType(contentType);
@@ -129,7 +462,7 @@ public class SupabaseStorageService {
         return MediaType.APPLICATION_OCTET_STREAM;
     }
 
-    private String buildObjectName(String originalFilename) {
+    String buildObjectName(String originalFilename) {
         String sanitizedName = "photo";
         if (StringUtils.hasText(originalFilename)) {
             sanitizedName = originalFilename.trim();
@@ -144,6 +477,10 @@ public class SupabaseStorageService {
         }
     }
 
+    private String publicPrefix() {
+        return normalizeBaseUrl() + "/storage/v1/object/public/" + bucketName + "/";
+    }
+
     private String normalizeBaseUrl() {
         String base = supabaseUrl.trim();
         if (base.endsWith("/")) {
@@ -151,5 +488,43 @@ public class SupabaseStorageService {
         }
         return base;
     }
-}
 
+    @FunctionalInterface
+    public interface ContentReader<T> {
+        T read(InputStream content) throws IOException;
+    }
+
+    /**
+     * Exposes a MultipartFile as a Resource with a known length, so the request is sent with a
+     * Content-Length header and the body is copied from the (possibly disk-spooled) part through
+     * a small buffer rather than materialised on the heap.
+     */
+    private static final class MultipartFileResource extends AbstractResource {
+
+        private final MultipartFile file;
+
+        private MultipartFileResource(MultipartFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return file.getInputStream();
+        }
+
+        @Override
+        public long contentLength() {
+            return file.getSize();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return "MultipartFile [" + file.getOriginalFilename() + "]";
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.TagFacetResponse;
+import com.techup.travel_app.event.TripChangedEvent;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.repository.TripTagsView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps per-tag trip counts in memory, so facet requests never scan the trips table. Counts are
+ * recounted from the table at startup and every {@code trip.facets.refresh-interval}, and adjusted
+ * from TripChangedEvent diffs in between.
+ * <p>
+ * Events only reach the instance that made the change. With several instances, each one sees the
+ * others' writes at its next recount, so facets may lag by up to the refresh interval.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TagFacetService implements SmartInitializingSingleton {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 200;
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final TripRepository tripRepository;
+
+    // Replaced whole by each recount; events adjust whichever map is current
+    private volatile Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+    }
+
+    /**
+     * Recounts every trip's tags into a new map and swaps it in. The scan is not a snapshot: a change
+     * committed while it runs may be missed or counted twice until the next recount.
+     */
+    @Scheduled(fixedDelayString = "${trip.facets.refresh-interval:5m}",
+            initialDelayString = "${trip.facets.refresh-interval:5m}")
+    public void refresh() {
+        Map<String, Long> fresh = new ConcurrentHashMap<>();
+        long afterId = 0;
+        long scanned = 0;
+        List<TripTagsView> batch;
+        do {
+            batch = tripRepository.findTagsAfterId(afterId, Limit.of(LOAD_BATCH_SIZE));
+            for (TripTagsView trip : batch) {
+                adjust(fresh, trip.getTags(), 1);
+                afterId = trip.getId();
+            }
+            scanned += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        counts = fresh;
+        log.debug("Counted tag facets: {} distinct tag(s) across {} trip(s)", fresh.size(), scanned);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripChanged(TripChangedEvent event) {
+        Map<String, Long> current = counts;
+        adjust(current, event.previousTags(), -1);
+        adjust(current, event.currentTags(), 1);
+    }
+
+    public List<TagFacetResponse> getTopTags(Integer limit) {
+        int k = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+
+        // Bounded min-heap: O(n log k) over the distinct tags
+        Comparator<Map.Entry<String, Long>> byCount = Map.Entry.<String, Long>comparingByValue()
+                .thenComparing(Map.Entry.<String, Long>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<String, Long>> top = new PriorityQueue<>(k + 1, byCount);
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            top.offer(Map.entry(entry.getKey(), entry.getValue()));
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+
+        return top.stream()
+                .sorted(byCount.reversed())
+                .map(entry -> TagFacetResponse.builder()
+                        .tag(entry.getKey())
+                        .count(entry.getValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static void adjust(Map<String, Long> counts, List<String> tags, long delta) {
+        if (tags == null) {
+            return;
+        }
+        // A trip counts once per tag even if the tag is repeated in its array
+        tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .distinct()
+                .forEach(tag -> counts.compute(tag, (key, current) -> {
+                    long next = (current == null ? 0 : current) + delta;
+                    return next > 0 ? next : null;
+                }));
+    }
+}
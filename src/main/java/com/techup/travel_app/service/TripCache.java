@@ -0,0 +1,128 @@
+package com.techup.travel_app.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.event.TripChangedEvent;
+import com.techup.travel_app.event.UserChangedEvent;
+import com.techup.travel_app.util.CacheLoads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of trip detail responses keyed by trip id. Concurrent misses on the
+ * same id share a single load, and entries are dropped once a trip update or delete has committed.
+ * <p>
+ * With a read replica configured, loads may see data up to {@code spring.datasource.replica.max-lag}
+ * old. For that long after an invalidation, responses are loaded but not cached, so a lagging read
+ * cannot pin a pre-update snapshot in the cache for a whole TTL.
+ * <p>
+ * Invalidation is local to this instance. Behind a load balancer, the other instances keep serving
+ * their cached copy until {@code trip.cache.ttl} expires, so the TTL is the bound on cross-node
+ * staleness and defaults to seconds. Only a single-node deployment can raise it safely.
+ */
+@Component
+public class TripCache implements MeterBinder {
+
+    private final AsyncCache<Long, TripResponse> cache;
+    // Ids invalidated within the stale-read window; null when reads always hit the primary
+    private final Cache<Long, Boolean> recentlyInvalidated;
+    private final long staleReadWindowNanos;
+    private volatile long invalidatedAllAt;
+
+    public TripCache(
+            @Value("${trip.cache.max-size:10000}") long maxSize,
+            @Value("${trip.cache.ttl:30s}") Duration ttl,
+            @Value("${spring.datasource.replica.url:}") String replicaUrl,
+            @Value("${spring.datasource.replica.max-lag:5s}") Duration replicaMaxLag
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+
+        Duration staleReadWindow = StringUtils.hasText(replicaUrl) ? replicaMaxLag : Duration.ZERO;
+        this.staleReadWindowNanos = staleReadWindow.toNanos();
+        this.recentlyInvalidated = staleReadWindow.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(staleReadWindow)
+                .build();
+        this.invalidatedAllAt = System.nanoTime() - staleReadWindowNanos;
+    }
+
+    public TripResponse get(Long id, Function<Long, TripResponse> loader) {
+        if (withinStaleReadWindow(id)) {
+            return loader.apply(id);
+        }
+        return CacheLoads.getOrLoad(cache, id, loader);
+    }
+
+    /**
+     * Returns the cached response without loading it or counting towards hit/miss statistics.
+     */
+    public TripResponse peek(Long id) {
+        return CacheLoads.peek(cache, id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripChanged(TripChangedEvent event) {
+        // Creates cannot have a stale entry; everything else invalidates after commit
+        if (event.type() != TripChangedEvent.Type.CREATED) {
+            invalidate(event.tripId());
+        }
+    }
+
+    /**
+     * Drops one trip's entry. For changes that are not trip edits (e.g. new photo variants); call after
+     * the change has committed.
+     */
+    public void invalidate(Long id) {
+        if (recentlyInvalidated != null) {
+            recentlyInvalidated.put(id, Boolean.TRUE);
+        }
+        cache.synchronous().invalidate(id);
+    }
+
+    // Cached trip details embed the author's email and display name
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        invalidatedAllAt = System.nanoTime();
+        cache.synchronous().invalidateAll();
+    }
+
+    private boolean withinStaleReadWindow(Long id) {
+        if (recentlyInvalidated == null) {
+            return false;
+        }
+        return System.nanoTime() - invalidatedAllAt < staleReadWindowNanos
+                || recentlyInvalidated.getIfPresent(id) != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "trips");
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+}
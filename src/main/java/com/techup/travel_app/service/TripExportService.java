@@ -0,0 +1,194 @@
+package com.techup.travel_app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.PhotoVariant;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-table trip export as NDJSON (one {@link TripResponse} per line) or CSV. Trips are read in
+ * id-ordered keyset chunks, each in its own short read-only transaction that is cleared before the
+ * chunk is written, so heap use and connection hold time stay flat however many trips there are.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(value = "travel.service", description = "Service method latency")
+public class TripExportService {
+
+    static final String CSV_HEADER = "id,title,description,photos,tags,latitude,longitude,authorId,"
+            + "authorEmail,authorDisplayName,createdAt,updatedAt";
+    // Joins list columns inside a single CSV field
+    static final String CSV_LIST_SEPARATOR = "|";
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("format must be one of ndjson, csv");
+            }
+        }
+    }
+
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final PhotoVariantService photoVariantService;
+
+    // Rows per query; also the most trips held in memory at once
+    @Value("${trip.export.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Writes every trip to {@code out} in ascending id order and returns the number written. Trips
+     * created while the export runs are included if their id is past the current position.
+     */
+    public long exportTrips(Format format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long exported = switch (format) {
+            case NDJSON -> exportNdjson(out);
+            case CSV -> exportCsv(out);
+        };
+        log.info("Exported {} trip(s) as {} in {} ms", exported, format,
+                (System.nanoTime() - started) / 1_000_000);
+        return exported;
+    }
+
+    private long exportNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return forEachChunk(chunk -> {
+                for (TripResponse trip : chunk) {
+                    writer.writeValue(generator, trip);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+            });
+        }
+    }
+
+    private long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long exported = forEachChunk(chunk -> {
+            for (TripResponse trip : chunk) {
+                writeCsvRow(writer, trip);
+            }
+            writer.flush();
+        });
+        writer.flush();
+        return exported;
+    }
+
+    private long forEachChunk(ChunkWriter chunkWriter) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        long afterId = 0;
+        long exported = 0;
+        List<TripResponse> chunk;
+        do {
+            long from = afterId;
+            // The connection is released before the chunk is written, so a slow client never holds one
+            chunk = readOnly.execute(status -> loadChunk(from));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunkWriter.write(chunk);
+            exported += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == chunkSize);
+        return exported;
+    }
+
+    private List<TripResponse> loadChunk(long afterId) {
+        List<Trip> trips = tripRepository.findAfterId(afterId, Limit.of(chunkSize));
+
+        // One IN (...) lookup each for the chunk's authors and photo variants
+        Set<Long> authorIds = trips.stream()
+                .map(Trip::getAuthorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> authorsById = authorIds.isEmpty()
+                ? Map.of()
+                : userRepository.findAllById(authorIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<String, PhotoVariant> variantsByUrl = photoVariantService.findByPhotoUrls(TripService.photoUrlsOf(trips));
+
+        List<TripResponse> rows = trips.stream()
+                .map(trip -> TripService.mapToResponse(trip, authorsById.get(trip.getAuthorId()), variantsByUrl))
+                .toList();
+        // Detach the chunk so the persistence context does not grow with the export
+        entityManager.clear();
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer writer, TripResponse trip) throws IOException {
+        Object[] fields = {
+                trip.getId(), trip.getTitle(), trip.getDescription(),
+                String.join(CSV_LIST_SEPARATOR, trip.getPhotos()), String.join(CSV_LIST_SEPARATOR, trip.getTags()),
+                trip.getLatitude(), trip.getLongitude(), trip.getAuthorId(),
+                trip.getAuthorEmail(), trip.getAuthorDisplayName(), trip.getCreatedAt(), trip.getUpdatedAt()
+        };
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writer.write(csvField(fields[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting: fields containing a separator, quote or line break are quoted, quotes doubled
+    static String csvField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(List<TripResponse> chunk) throws IOException;
+    }
+}
@@ -0,0 +1,314 @@
+package com.techup.travel_app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.techup.travel_app.dto.TripImportResult;
+import com.techup.travel_app.dto.TripImportSummary;
+import com.techup.travel_app.dto.TripRequest;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.event.TripChangedEvent;
+import com.techup.travel_app.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk trip import from NDJSON, one {@link TripRequest} per line. The body is read incrementally, so
+ * memory is bounded by the batch size rather than the size of the upload. Valid lines are persisted a
+ * batch at a time in their own transaction, after which the persistence context is flushed and cleared;
+ * only then are that batch's per-line results written, so clients see progress as the import runs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(value = "travel.service", description = "Service method latency")
+public class TripImportService {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final StoredObjectService storedObjectService;
+
+    // Lines per transaction and per flush/clear of the persistence context
+    @Value("${trip.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${trip.import.max-line-length:65536}")
+    private int maxLineLength;
+
+    /**
+     * Imports every line of {@code ndjson} and writes one result object per non-blank line to
+     * {@code results}, in input order, followed by a {@code {"summary": ...}} object. Lines without an
+     * authorId are attributed to {@code defaultAuthorId}.
+     */
+    public TripImportSummary importTrips(InputStream ndjson, Long defaultAuthorId, OutputStream results) throws IOException {
+        long started = System.nanoTime();
+        ObjectReader requestReader = objectMapper.readerFor(TripRequest.class);
+        ObjectWriter resultWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        TripImportSummary summary = new TripImportSummary();
+        Set<Long> knownAuthors = new HashSet<>();
+
+        LineReader lines = new LineReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8), maxLineLength);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(results)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            List<PendingLine> pending = new ArrayList<>(batchSize);
+            String line;
+            while ((line = lines.next()) != null) {
+                if (!lines.overflowed() && line.isBlank()) {
+                    continue;
+                }
+                pending.add(lines.overflowed()
+                        ? PendingLine.invalid(lines.lineNumber(), List.of("Line exceeds " + maxLineLength + " characters"))
+                        : parse(requestReader, lines.lineNumber(), line, defaultAuthorId));
+                if (pending.size() >= batchSize) {
+                    writeBatch(pending, knownAuthors, summary, resultWriter, generator);
+                }
+            }
+            writeBatch(pending, knownAuthors, summary, resultWriter, generator);
+
+            summary.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            resultWriter.writeValue(generator, Map.of("summary", summary));
+            generator.writeRaw('\n');
+        }
+        log.info("Imported trips: {} created, {} invalid, {} failed of {} line(s) in {} ms",
+                summary.getCreated(), summary.getInvalid(), summary.getFailed(), summary.getLines(), summary.getDurationMs());
+        return summary;
+    }
+
+    private PendingLine parse(ObjectReader requestReader, long lineNumber, String line, Long defaultAuthorId) {
+        TripRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return PendingLine.invalid(lineNumber, List.of("Malformed JSON: " + e.getOriginalMessage()));
+        }
+        if (request == null) {
+            return PendingLine.invalid(lineNumber, List.of("Line is not a JSON object"));
+        }
+        if (request.getAuthorId() == null) {
+            request.setAuthorId(defaultAuthorId);
+        }
+
+        Set<ConstraintViolation<TripRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return PendingLine.invalid(lineNumber, violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .toList());
+        }
+        return new PendingLine(lineNumber, request);
+    }
+
+    private void writeBatch(List<PendingLine> pending, Set<Long> knownAuthors, TripImportSummary summary,
+                            ObjectWriter resultWriter, JsonGenerator generator) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        rejectUnknownAuthors(pending, knownAuthors);
+
+        List<PendingLine> valid = pending.stream().filter(line -> line.result == null).toList();
+        if (!valid.isEmpty()) {
+            try {
+                persist(valid);
+            } catch (RuntimeException batchError) {
+                // Isolate the offending line(s) so one bad row does not fail its whole batch
+                log.warn("Import batch of {} trip(s) failed, retrying row by row: {}", valid.size(), batchError.getMessage());
+                for (PendingLine line : valid) {
+                    try {
+                        persist(List.of(line));
+                    } catch (RuntimeException rowError) {
+                        line.reject(TripImportResult.Status.FAILED, List.of(String.valueOf(rowError.getMessage())));
+                    }
+                }
+            }
+        }
+
+        for (PendingLine line : pending) {
+            summary.setLines(summary.getLines() + 1);
+            switch (line.result.getStatus()) {
+                case CREATED -> summary.setCreated(summary.getCreated() + 1);
+                case INVALID -> summary.setInvalid(summary.getInvalid() + 1);
+                case FAILED -> summary.setFailed(summary.getFailed() + 1);
+            }
+            resultWriter.writeValue(generator, line.result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        pending.clear();
+    }
+
+    private void rejectUnknownAuthors(List<PendingLine> pending, Set<Long> knownAuthors) {
+        Set<Long> unchecked = new HashSet<>();
+        for (PendingLine line : pending) {
+            if (line.result == null && !knownAuthors.contains(line.request.getAuthorId())) {
+                unchecked.add(line.request.getAuthorId());
+            }
+        }
+        if (!unchecked.isEmpty()) {
+            knownAuthors.addAll(userRepository.findExistingIds(unchecked));
+        }
+        for (PendingLine line : pending) {
+            if (line.result == null && !knownAuthors.contains(line.request.getAuthorId())) {
+                line.reject(TripImportResult.Status.INVALID, List.of("User not found with id: " + line.request.getAuthorId()));
+            }
+        }
+    }
+
+    private void persist(List<PendingLine> lines) {
+        List<Trip> trips = new ArrayList<>(lines.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PendingLine line : lines) {
+                Trip trip = TripService.newTrip(line.request);
+                entityManager.persist(trip);
+                trips.add(trip);
+            }
+            entityManager.flush();
+            storedObjectService.updateReferences(List.of(), trips.stream()
+                    .flatMap(trip -> trip.getPhotos().stream())
+                    .toList());
+            for (Trip trip : trips) {
+                eventPublisher.publishEvent(TripChangedEvent.created(trip.getId(), trip.getTags()));
+            }
+            // Detach the batch so the persistence context does not grow with the import
+            entityManager.clear();
+        });
+        for (int i = 0; i < lines.size(); i++) {
+            lines.get(i).result = TripImportResult.builder()
+                    .line(lines.get(i).lineNumber)
+                    .status(TripImportResult.Status.CREATED)
+                    .id(trips.get(i).getId())
+                    .build();
+        }
+    }
+
+    private static final class PendingLine {
+
+        final long lineNumber;
+        final TripRequest request;
+        TripImportResult result;
+
+        PendingLine(long lineNumber, TripRequest request) {
+            this.lineNumber = lineNumber;
+            this.request = request;
+        }
+
+        static PendingLine invalid(long lineNumber, List<String> errors) {
+            PendingLine line = new PendingLine(lineNumber, null);
+            line.reject(TripImportResult.Status.INVALID, errors);
+            return line;
+        }
+
+        void reject(TripImportResult.Status status, List<String> errors) {
+            result = TripImportResult.builder()
+                    .line(lineNumber)
+                    .status(status)
+                    .errors(errors)
+                    .build();
+        }
+    }
+
+    /**
+     * Like BufferedReader.readLine, but stops buffering a line once it exceeds the limit, so a single
+     * oversized or unterminated line cannot exhaust the heap.
+     */
+    private static final class LineReader {
+
+        private final Reader in;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private long lineNumber;
+        private boolean overflowed;
+
+        LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        String next() throws IOException {
+            line.setLength(0);
+            overflowed = false;
+            boolean readAny = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return readAny ? finishLine() : null;
+                    }
+                }
+                readAny = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    return finishLine();
+                }
+            }
+        }
+
+        long lineNumber() {
+            return lineNumber;
+        }
+
+        boolean overflowed() {
+            return overflowed;
+        }
+
+        private void append(int start, int end) {
+            if (overflowed) {
+                return;
+            }
+            if (line.length() + (end - start) > maxLength) {
+                overflowed = true;
+                line.setLength(0);
+                return;
+            }
+            line.append(buffer, start, end - start);
+        }
+
+        private String finishLine() {
+            lineNumber++;
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(length - 1);
+            }
+            return line.toString();
+        }
+    }
+}
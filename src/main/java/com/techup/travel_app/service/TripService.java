@@ -1,67 +1,108 @@
 package com.techup.travel_app.service;
 
+import com.techup.travel_app.dto.CursorPageResponse;
+import com.techup.travel_app.dto.PhotoVariants;
+import com.techup.travel_app.dto.ResourceVersion;
 import com.techup.travel_app.dto.TripRequest;
 import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.PhotoVariant;
 import com.techup.travel_app.entity.Trip;
 import com.techup.travel_app.entity.User;
+import com.techup.travel_app.event.TripChangedEvent;
+import com.techup.travel_app.repository.TripLocationView;
 import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.repository.TripSpecifications;
+import com.techup.travel_app.repository.TripVersionView;
 import com.techup.travel_app.repository.UserRepository;
 import com.techup.travel_app.security.CustomUserDetails;
+import com.techup.travel_app.util.CursorCodec;
+import com.techup.travel_app.util.GeoHash;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TripService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final double DEFAULT_NEARBY_RADIUS_KM = 10;
+    static final double MAX_NEARBY_RADIUS_KM = 500;
+    private static final Sort LATEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
     
     private final TripRepository tripRepository;
     private final UserRepository userRepository;
     private final SupabaseStorageService storageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TripCache tripCache;
+    private final TransactionTemplate transactionTemplate;
+    private final PhotoVariantService photoVariantService;
+    private final StoredObjectService storedObjectService;
+    private final ObjectDeletionQueue objectDeletionQueue;
+
+    // Most trips read (as id and coordinates) for one proximity search; past this, the farthest are dropped
+    @Value("${trip.nearby.max-candidates:2000}")
+    private int maxNearbyCandidates;
     
+    @Timed(value = "travel.service", description = "Service method latency")
     @Transactional
     public TripResponse createTrip(TripRequest request) {
         // Verify author exists
         User author = userRepository.findById(request.getAuthorId())
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + request.getAuthorId()));
         
-        Trip trip = new Trip();
-        trip.setTitle(request.getTitle());
-        trip.setDescription(request.getDescription());
-        trip.setPhotos(request.getPhotos() != null ? request.getPhotos() : new ArrayList<>());
-        trip.setTags(request.getTags() != null ? request.getTags() : new ArrayList<>());
-        trip.setLatitude(request.getLatitude());
-        trip.setLongitude(request.getLongitude());
-        trip.setAuthorId(request.getAuthorId());
-        
-        Trip savedTrip = tripRepository.save(trip);
-        return mapToResponse(savedTrip);
+        Trip savedTrip = tripRepository.save(newTrip(request));
+        photosChanged(List.of(), savedTrip.getPhotos());
+        eventPublisher.publishEvent(TripChangedEvent.created(savedTrip.getId(), savedTrip.getTags()));
+        return toResponse(savedTrip, author);
     }
 
-    @Transactional
+    // The upload flows below are deliberately not @Transactional: photos go to storage first, and only
+    // the final insert/update runs in a short transaction, so a slow storage exchange never holds a
+    // pooled connection. If that transaction fails, the freshly uploaded objects are removed again.
+
+    @Timed(value = "travel.service", description = "Service method latency")
     public TripResponse createTripWithUploads(TripRequest request, List<MultipartFile> photos) {
+        requireUser(request.getAuthorId());
         List<String> uploadedPhotos = storageService.uploadTripPhotos(photos);
         request.setPhotos(uploadedPhotos);
-        return createTrip(request);
+        return persistAfterUpload(uploadedPhotos, () -> createTrip(request));
     }
 
-    @Transactional
+    @Timed(value = "travel.service", description = "Service method latency")
     public TripResponse createTripForAuthorWithUploads(
             Long authorId,
             TripRequest request,
             MultipartFile primaryImage,
             List<MultipartFile> additionalImages) {
         request.setAuthorId(authorId);
+        requireUser(authorId);
 
         List<MultipartFile> filesToUpload = new ArrayList<>();
         if (primaryImage != null && !primaryImage.isEmpty()) {
@@ -75,20 +116,19 @@ public class TripService {
 
         List<String> uploadedPhotos = storageService.uploadTripPhotos(filesToUpload);
         request.setPhotos(uploadedPhotos);
-        return createTrip(request);
+        return persistAfterUpload(uploadedPhotos, () -> createTrip(request));
     }
 
-    @Transactional
+    @Timed(value = "travel.service", description = "Service method latency")
     public TripResponse createTripForCurrentUser(
             TripRequest request,
             MultipartFile primaryImage,
             List<MultipartFile> additionalImages) {
         // Get current authenticated user
-        Long currentUserId = getCurrentUserId();
+        Long currentUserId = CustomUserDetails.currentUserId();
         
         // Verify user exists
-        User author = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + currentUserId));
+        User author = requireUser(currentUserId);
         
         // Combine primary and additional images for upload
         List<MultipartFile> filesToUpload = new ArrayList<>();
@@ -121,44 +161,197 @@ public class TripService {
         trip.setLongitude(request.getLongitude());
         trip.setAuthorId(currentUserId);
         
-        Trip savedTrip = tripRepository.save(trip);
-        return mapToResponse(savedTrip);
+        return persistAfterUpload(uploadedPhotos, () -> {
+            Trip savedTrip = tripRepository.save(trip);
+            photosChanged(List.of(), savedTrip.getPhotos());
+            eventPublisher.publishEvent(TripChangedEvent.created(savedTrip.getId(), savedTrip.getTags()));
+            return toResponse(savedTrip, author);
+        });
     }
     
+    @Timed(value = "travel.service", description = "Service method latency")
     public TripResponse getTripById(Long id) {
-        Trip trip = tripRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Trip not found with id: " + id));
-        return mapToResponse(trip);
+        return tripCache.get(id, this::loadTripResponse);
+    }
+
+    // Only cache misses open a (read-only, replica-routed) transaction; hits never borrow a connection
+    private TripResponse loadTripResponse(Long id) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            Trip trip = tripRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Trip not found with id: " + id));
+            return mapToResponse(trip);
+        });
     }
     
-    public List<TripResponse> getAllTrips() {
-        return tripRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Validators for a trip detail response, or null if the trip does not exist. Always one indexed
+     * row read, never the cache: another instance may have changed the trip since it was cached here.
+     */
+    @Timed(value = "travel.service", description = "Service method latency")
+    public ResourceVersion getTripVersion(Long id) {
+        return tripRepository.findVersionById(id)
+                .map(version -> tripVersion(id, version))
+                .orElse(null);
+    }
+
+    /**
+     * Validators for a list response, derived from the trips it holds rather than from the table, so
+     * they cost no query and change exactly when this response would. nextCursor is null for
+     * unpaginated lists.
+     */
+    public ResourceVersion getListVersion(List<TripResponse> trips, String nextCursor) {
+        List<Object> parts = new ArrayList<>(trips.size() * 5 + 1);
+        parts.add(nextCursor);
+        for (TripResponse trip : trips) {
+            parts.add(trip.getId());
+            parts.add(trip.getUpdatedAt());
+            parts.add(trip.getAuthorEmail());
+            parts.add(trip.getAuthorDisplayName());
+            parts.add(trip.getPhotoVariants());
+        }
+        return ResourceVersion.of(null, parts.toArray());
     }
     
+    @Timed(value = "travel.service", description = "Service method latency")
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TripResponse> getTripsPage(String cursor, Integer size) {
+        return getTripsPage(cursor, size, List.of(), false);
+    }
+
+    @Timed(value = "travel.service", description = "Service method latency")
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TripResponse> getTripsPage(String cursor, Integer size, List<String> tags, boolean matchAll) {
+        int pageSize = resolvePageSize(size);
+        // Fetch one extra row to know whether another page exists without a count query
+        int fetchSize = pageSize + 1;
+        CursorCodec.Keyset keyset = (cursor == null || cursor.isBlank()) ? null : CursorCodec.decode(cursor);
+
+        List<Trip> trips;
+        if (tags == null || tags.isEmpty()) {
+            trips = keyset == null
+                    ? tripRepository.findLatest(Limit.of(fetchSize))
+                    : tripRepository.findLatestBefore(keyset.createdAt(), keyset.id(), Limit.of(fetchSize));
+        } else {
+            Specification<Trip> filter = TripSpecifications.hasTags(tags, matchAll);
+            if (keyset != null) {
+                filter = filter.and(TripSpecifications.before(keyset.createdAt(), keyset.id()));
+            }
+            trips = tripRepository.findBy(filter, query -> query.sortBy(LATEST_FIRST).limit(fetchSize).all());
+        }
+
+        boolean hasMore = trips.size() > pageSize;
+        if (hasMore) {
+            trips = trips.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Trip last = trips.get(trips.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageResponse.<TripResponse>builder()
+                .items(mapToResponses(trips))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(pageSize)
+                .build();
+    }
+    
+    @Timed(value = "travel.service", description = "Service method latency")
+    @Transactional(readOnly = true)
     public List<TripResponse> getTripsByAuthorId(Long authorId) {
-        return tripRepository.findByAuthorId(authorId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(tripRepository.findByAuthorId(authorId));
+    }
+    
+    @Timed(value = "travel.service", description = "Service method latency")
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TripResponse> searchTrips(String query, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        int offset = (cursor == null || cursor.isBlank()) ? 0 : CursorCodec.decodeOffset(cursor);
+
+        if (query == null || query.isBlank()) {
+            return CursorPageResponse.<TripResponse>builder()
+                    .items(new ArrayList<>())
+                    .size(pageSize)
+                    .build();
+        }
+
+        // Ranked results cannot be keyset-paginated; the offset cursor is aligned down to the page size
+        Slice<Trip> trips = tripRepository.searchRanked(query.trim(), PageRequest.of(offset / pageSize, pageSize));
+
+        return CursorPageResponse.<TripResponse>builder()
+                .items(mapToResponses(trips.getContent()))
+                .nextCursor(trips.hasNext() ? CursorCodec.encodeOffset((int) trips.nextPageable().getOffset()) : null)
+                .hasMore(trips.hasNext())
+                .size(pageSize)
+                .build();
     }
     
-    public List<TripResponse> searchTripsByTitle(String title) {
-        return tripRepository.findByTitleContainingIgnoreCase(title).stream()
-                .map(this::mapToResponse)
+    @Timed(value = "travel.service", description = "Service method latency")
+    @Transactional(readOnly = true)
+    public List<TripResponse> getNearbyTrips(double latitude, double longitude, Double radiusKm, Integer limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        double radius = (radiusKm == null || radiusKm <= 0)
+                ? DEFAULT_NEARBY_RADIUS_KM
+                : Math.min(radiusKm, MAX_NEARBY_RADIUS_KM);
+        int maxResults = resolvePageSize(limit);
+
+        // Narrow candidates with an index range scan over the covering geohash cells and the bounding
+        // box, reading only id and coordinates; the nearest few are then ranked here and loaded in full.
+        // In a dense area the database keeps just the roughly nearest maxNearbyCandidates
+        int precision = GeoHash.precisionForRadius(radius, latitude);
+        Specification<Trip> area = TripSpecifications.withinBoundingBox(latitude, longitude, radius);
+        if (precision > 0) {
+            area = area.and(TripSpecifications.inGeohashCells(GeoHash.coveringCells(latitude, longitude, precision)));
+        }
+        List<TripLocationView> candidates = tripRepository.findBy(
+                area.and(TripSpecifications.nearestFirst(latitude, longitude)),
+                query -> query.as(TripLocationView.class).limit(maxNearbyCandidates).all());
+
+        record Candidate(Long id, double distanceKm) {
+        }
+
+        List<Candidate> nearest = candidates.stream()
+                .map(trip -> new Candidate(trip.getId(),
+                        GeoHash.distanceKm(latitude, longitude, trip.getLatitude(), trip.getLongitude())))
+                .filter(candidate -> candidate.distanceKm() <= radius)
+                .sorted(Comparator.comparingDouble(Candidate::distanceKm))
+                .limit(maxResults)
+                .collect(Collectors.toList());
+
+        Map<Long, Trip> tripsById = tripRepository.findAllById(nearest.stream().map(Candidate::id).toList()).stream()
+                .collect(Collectors.toMap(Trip::getId, Function.identity()));
+        List<Candidate> found = nearest.stream()
+                .filter(candidate -> tripsById.containsKey(candidate.id()))
                 .collect(Collectors.toList());
+        List<TripResponse> responses = mapToResponses(found.stream()
+                .map(candidate -> tripsById.get(candidate.id()))
+                .collect(Collectors.toList()));
+        for (int i = 0; i < responses.size(); i++) {
+            responses.get(i).setDistanceKm(found.get(i).distanceKm());
+        }
+        return responses;
     }
     
+    @Timed(value = "travel.service", description = "Service method latency")
     @Transactional
     public TripResponse updateTrip(Long id, TripRequest request) {
         Trip trip = tripRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Trip not found with id: " + id));
         
-        Long currentUserId = getCurrentUserId();
+        Long currentUserId = CustomUserDetails.currentUserId();
         if (trip.getAuthorId() == null || !trip.getAuthorId().equals(currentUserId)) {
             throw new AccessDeniedException("You can only edit your own trips.");
         }
         
+        List<String> previousTags = trip.getTags();
+        List<String> previousPhotos = trip.getPhotos();
+
         // Verify author exists if authorId is being changed
         if (request.getAuthorId() != null && !trip.getAuthorId().equals(request.getAuthorId())) {
             userRepository.findById(request.getAuthorId())
@@ -180,48 +373,71 @@ public class TripService {
         }
         
         Trip updatedTrip = tripRepository.save(trip);
+        photosChanged(previousPhotos, updatedTrip.getPhotos());
+        eventPublisher.publishEvent(TripChangedEvent.updated(id, previousTags, updatedTrip.getTags()));
         return mapToResponse(updatedTrip);
     }
 
-    @Transactional
+    @Timed(value = "travel.service", description = "Service method latency")
     public TripResponse updateTripWithUploads(
             Long id,
             TripRequest request,
             MultipartFile primaryImage,
             List<MultipartFile> additionalImages) {
-        Trip trip = tripRepository.findById(id)
+        // Check ownership before uploading anything; it is checked again inside the write transaction
+        Trip existingTrip = tripRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Trip not found with id: " + id));
         
-        Long currentUserId = getCurrentUserId();
-        if (trip.getAuthorId() == null || !trip.getAuthorId().equals(currentUserId)) {
-            throw new AccessDeniedException("You can only edit your own trips.");
-        }
-        
-        // Handle image uploads - separate primary and additional images
-        String uploadedPrimaryImageUrl = null;
-        List<String> uploadedAdditionalImageUrls = new ArrayList<>();
+        Long currentUserId = CustomUserDetails.currentUserId();
+        requireOwner(existingTrip, currentUserId, "You can only edit your own trips.");
         
-        if (primaryImage != null && !primaryImage.isEmpty()) {
-            List<MultipartFile> primaryFileList = new ArrayList<>();
-            primaryFileList.add(primaryImage);
-            List<String> uploaded = storageService.uploadTripPhotos(primaryFileList);
-            if (!uploaded.isEmpty()) {
-                uploadedPrimaryImageUrl = uploaded.get(0);
-                log.info("Uploaded primary image to Supabase Storage for trip ID: {}", id);
-            }
+        // Upload primary and additional images as one parallel batch; the primary (if any) comes first
+        List<MultipartFile> filesToUpload = new ArrayList<>();
+        boolean hasPrimaryImage = primaryImage != null && !primaryImage.isEmpty();
+        if (hasPrimaryImage) {
+            filesToUpload.add(primaryImage);
         }
-        
-        if (additionalImages != null && !additionalImages.isEmpty()) {
-            List<MultipartFile> additionalFiles = additionalImages.stream()
+        if (additionalImages != null) {
+            additionalImages.stream()
                     .filter(file -> file != null && !file.isEmpty())
-                    .collect(Collectors.toList());
-            if (!additionalFiles.isEmpty()) {
-                uploadedAdditionalImageUrls = storageService.uploadTripPhotos(additionalFiles);
-                log.info("Uploaded {} additional image(s) to Supabase Storage for trip ID: {}", 
-                        uploadedAdditionalImageUrls.size(), id);
-            }
+                    .forEach(filesToUpload::add);
         }
-        
+
+        List<String> uploadedPhotos = filesToUpload.isEmpty()
+                ? new ArrayList<>()
+                : storageService.uploadTripPhotos(filesToUpload);
+
+        String uploadedPrimaryImageUrl = null;
+        List<String> uploadedAdditionalImageUrls = uploadedPhotos;
+        if (hasPrimaryImage && !uploadedPhotos.isEmpty()) {
+            uploadedPrimaryImageUrl = uploadedPhotos.get(0);
+            uploadedAdditionalImageUrls = uploadedPhotos.subList(1, uploadedPhotos.size());
+            log.info("Uploaded primary image to Supabase Storage for trip ID: {}", id);
+        }
+        if (!uploadedAdditionalImageUrls.isEmpty()) {
+            log.info("Uploaded {} additional image(s) to Supabase Storage for trip ID: {}",
+                    uploadedAdditionalImageUrls.size(), id);
+        }
+
+        String primaryImageUrl = uploadedPrimaryImageUrl;
+        List<String> additionalImageUrls = uploadedAdditionalImageUrls;
+        return persistAfterUpload(uploadedPhotos,
+                () -> applyUpdateWithUploads(id, currentUserId, request, primaryImageUrl, additionalImageUrls));
+    }
+
+    private TripResponse applyUpdateWithUploads(
+            Long id,
+            Long currentUserId,
+            TripRequest request,
+            String uploadedPrimaryImageUrl,
+            List<String> uploadedAdditionalImageUrls) {
+        Trip trip = tripRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Trip not found with id: " + id));
+        requireOwner(trip, currentUserId, "You can only edit your own trips.");
+
+        List<String> previousTags = trip.getTags();
+        List<String> previousPhotos = trip.getPhotos();
+
         // Update trip fields
         if (request.getTitle() != null && !request.getTitle().trim().isEmpty()) {
             trip.setTitle(request.getTitle());
@@ -286,29 +502,113 @@ public class TripService {
         trip.setPhotos(finalPhotos);
         
         Trip updatedTrip = tripRepository.save(trip);
+        photosChanged(previousPhotos, updatedTrip.getPhotos());
+        eventPublisher.publishEvent(TripChangedEvent.updated(id, previousTags, updatedTrip.getTags()));
         log.info("Trip ID {} updated successfully", id);
         return mapToResponse(updatedTrip);
     }
     
+    @Timed(value = "travel.service", description = "Service method latency")
     @Transactional
     public void deleteTrip(Long id) {
         Trip trip = tripRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Trip not found with id: " + id));
 
-        Long currentUserId = getCurrentUserId();
+        Long currentUserId = CustomUserDetails.currentUserId();
         if (trip.getAuthorId() == null || !trip.getAuthorId().equals(currentUserId)) {
             throw new AccessDeniedException("You can only delete your own trips.");
         }
 
         tripRepository.delete(trip);
+        photosChanged(trip.getPhotos(), List.of());
+        eventPublisher.publishEvent(TripChangedEvent.deleted(id, trip.getTags()));
     }
     
+    // Runs inside the trip's write transaction: reference counts move with the trip, and bucket
+    // photos it no longer lists are queued for StorageReaper (which re-checks they are unused)
+    private void photosChanged(List<String> before, List<String> after) {
+        // Photos shown again must not be reaped; done first, the reaper locks queue rows before stored_objects
+        Set<String> previous = before != null ? new HashSet<>(before) : Set.of();
+        if (after != null) {
+            objectDeletionQueue.cancel(after.stream()
+                    .filter(url -> !previous.contains(url) && storageService.isBucketUrl(url))
+                    .map(storageService::toObjectName)
+                    .toList());
+        }
+        storedObjectService.updateReferences(before, after);
+        if (before == null || before.isEmpty()) {
+            return;
+        }
+        Set<String> kept = after != null ? new HashSet<>(after) : Set.of();
+        objectDeletionQueue.enqueue(before.stream()
+                .filter(url -> !kept.contains(url) && storageService.isBucketUrl(url))
+                .map(storageService::toObjectName)
+                .toList());
+    }
+
+    // Shared with the bulk import so both create paths map requests identically
+    static Trip newTrip(TripRequest request) {
+        Trip trip = new Trip();
+        trip.setTitle(request.getTitle());
+        trip.setDescription(request.getDescription());
+        trip.setPhotos(request.getPhotos() != null ? request.getPhotos() : new ArrayList<>());
+        trip.setTags(request.getTags() != null ? request.getTags() : new ArrayList<>());
+        trip.setLatitude(request.getLatitude());
+        trip.setLongitude(request.getLongitude());
+        trip.setAuthorId(request.getAuthorId());
+        return trip;
+    }
+
     private TripResponse mapToResponse(Trip trip) {
+        User author = trip.getAuthorId() != null
+                ? userRepository.findById(trip.getAuthorId()).orElse(null)
+                : null;
+        return toResponse(trip, author);
+    }
+
+    private TripResponse toResponse(Trip trip, User author) {
+        return mapToResponse(trip, author, photoVariantService.findByPhotoUrls(photoUrlsOf(List.of(trip))));
+    }
+
+    // Resolves every author (and every photo's variants) of the list with a single IN (...) query each
+    // instead of one lookup per trip
+    private List<TripResponse> mapToResponses(List<Trip> trips) {
+        Set<Long> authorIds = trips.stream()
+                .map(Trip::getAuthorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, User> authorsById = authorIds.isEmpty()
+                ? Map.of()
+                : userRepository.findAllById(authorIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<String, PhotoVariant> variantsByUrl = photoVariantService.findByPhotoUrls(photoUrlsOf(trips));
+
+        return trips.stream()
+                .map(trip -> mapToResponse(trip, authorsById.get(trip.getAuthorId()), variantsByUrl))
+                .collect(Collectors.toList());
+    }
+
+    static Set<String> photoUrlsOf(List<Trip> trips) {
+        return trips.stream()
+                .filter(trip -> trip.getPhotos() != null)
+                .flatMap(trip -> trip.getPhotos().stream())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    // Pure mapping, also used by the bulk export
+    static TripResponse mapToResponse(Trip trip, User author, Map<String, PhotoVariant> variantsByUrl) {
+        List<String> photos = trip.getPhotos() != null ? trip.getPhotos() : new ArrayList<>();
         TripResponse.TripResponseBuilder builder = TripResponse.builder()
                 .id(trip.getId())
                 .title(trip.getTitle())
                 .description(trip.getDescription())
-                .photos(trip.getPhotos() != null ? trip.getPhotos() : new ArrayList<>())
+                .photos(photos)
+                .photoVariants(photos.stream()
+                        .map(url -> photoVariants(url, variantsByUrl.get(url)))
+                        .collect(Collectors.toList()))
                 .tags(trip.getTags() != null ? trip.getTags() : new ArrayList<>())
                 .latitude(trip.getLatitude())
                 .longitude(trip.getLongitude())
@@ -316,32 +616,77 @@ public class TripService {
                 .createdAt(trip.getCreatedAt())
                 .updatedAt(trip.getUpdatedAt());
         
-        // Load author info if available
-        if (trip.getAuthor() != null) {
-            builder.authorEmail(trip.getAuthor().getEmail())
-                   .authorDisplayName(trip.getAuthor().getDisplayName());
-        } else if (trip.getAuthorId() != null) {
-            userRepository.findById(trip.getAuthorId()).ifPresent(author -> {
-                builder.authorEmail(author.getEmail())
-                       .authorDisplayName(author.getDisplayName());
-            });
+        if (author != null) {
+            builder.authorEmail(author.getEmail())
+                   .authorDisplayName(author.getDisplayName());
         }
         
         return builder.build();
     }
 
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("Authentication required.");
+    private static PhotoVariants photoVariants(String url, PhotoVariant variant) {
+        PhotoVariants.PhotoVariantsBuilder builder = PhotoVariants.builder().url(url);
+        if (variant != null) {
+            builder.thumbnail(variant.getThumbnailUrl())
+                    .card(variant.getCardUrl())
+                    .full(variant.getFullUrl());
         }
+        return builder.build();
+    }
 
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof CustomUserDetails customUserDetails) {
-            return customUserDetails.getUserId();
+    // Variants of the new uploads are generated in the background once the trip has committed. Only a
+    // failed persist removes the uploads: once the transaction has returned, the trip references them
+    private TripResponse persistAfterUpload(List<String> uploadedPhotos, Supplier<TripResponse> persist) {
+        TripResponse response;
+        try {
+            response = transactionTemplate.execute(status -> persist.get());
+        } catch (RuntimeException e) {
+            if (!uploadedPhotos.isEmpty()) {
+                try {
+                    storageService.discardUploads(uploadedPhotos);
+                    log.info("Removed uploaded photo(s) after the trip could not be saved: {}", uploadedPhotos);
+                } catch (RuntimeException cleanupError) {
+                    log.error("Failed to remove uploaded photo(s) {} after save failure", uploadedPhotos, cleanupError);
+                }
+            }
+            throw e;
+        }
+        try {
+            photoVariantService.generateVariants(uploadedPhotos);
+        } catch (RuntimeException e) {
+            log.warn("Could not schedule photo variants for trip {}; originals will be served", response.getId(), e);
         }
+        return response;
+    }
 
-        throw new AccessDeniedException("Unable to determine current user.");
+    private User requireUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+    }
+
+    private void requireOwner(Trip trip, Long userId, String message) {
+        if (trip.getAuthorId() == null || !trip.getAuthorId().equals(userId)) {
+            throw new AccessDeniedException(message);
+        }
+    }
+
+    private ResourceVersion tripVersion(Long id, TripVersionView version) {
+        // The author's details and the photo variants are part of the representation, so they are part
+        // of the ETag too; Last-Modified is whichever of the trip and its variants changed last
+        Instant updatedAt = version.getUpdatedAt();
+        Instant variantsUpdatedAt = version.getVariantsUpdatedAt();
+        Instant lastModified = updatedAt == null || (variantsUpdatedAt != null && variantsUpdatedAt.isAfter(updatedAt))
+                ? variantsUpdatedAt
+                : updatedAt;
+        return ResourceVersion.of(lastModified, "trip", id, updatedAt, variantsUpdatedAt,
+                version.getAuthorEmail(), version.getAuthorDisplayName());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 }
 
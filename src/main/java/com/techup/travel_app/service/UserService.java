@@ -4,9 +4,12 @@ import com.techup.travel_app.dto.RegisterRequest;
 import com.techup.travel_app.dto.UserRequest;
 import com.techup.travel_app.dto.UserResponse;
 import com.techup.travel_app.entity.User;
+import com.techup.travel_app.event.UserChangedEvent;
 import com.techup.travel_app.exception.EmailAlreadyExistsException;
 import com.techup.travel_app.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,10 +19,12 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "travel.service", description = "Service method latency")
 public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public UserResponse createUser(RegisterRequest request) {
@@ -55,18 +60,21 @@ public class UserService {
         return mapToResponse(savedUser);
     }
     
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         return mapToResponse(user);
     }
     
+    @Transactional(readOnly = true)
     public UserResponse getUserByEmail(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
         return mapToResponse(user);
     }
     
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::mapToResponse)
@@ -84,6 +92,7 @@ public class UserService {
             throw new EmailAlreadyExistsException("Email already exists");
         }
         
+        String previousEmail = user.getEmail();
         user.setEmail(request.getEmail());
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
             user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
@@ -91,15 +100,16 @@ public class UserService {
         user.setDisplayName(request.getDisplayName());
         
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id, previousEmail));
         return mapToResponse(updatedUser);
     }
     
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail()));
     }
     
     private UserResponse mapToResponse(User user) {
@@ -0,0 +1,60 @@
+package com.techup.travel_app.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through loading for caches whose loaders block on I/O.
+ * <p>
+ * {@code Cache.get(key, loader)} runs the loader inside {@code ConcurrentHashMap.compute}, i.e. while
+ * holding a monitor. On JDK 21 that pins a virtual thread to its carrier for the whole database
+ * round-trip. Here the map lock is only held to publish a future; the caller that published it runs
+ * the loader unlocked, and concurrent callers for the same key wait on that future.
+ */
+public final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> existing = cache.getIfPresent(key);
+        if (existing == null) {
+            CompletableFuture<V> loading = new CompletableFuture<>();
+            existing = cache.asMap().putIfAbsent(key, loading);
+            if (existing == null) {
+                // A failed or null load completes the future that way, and the cache drops the entry
+                try {
+                    V value = loader.apply(key);
+                    loading.complete(value);
+                    return value;
+                } catch (RuntimeException | Error e) {
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The completed value for the key, or null if absent or still loading. Does not record statistics.
+     */
+    public static <K, V> V peek(AsyncCache<K, V> cache, K key) {
+        CompletableFuture<V> future = cache.asMap().get(key);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+}
@@ -0,0 +1,59 @@
+package com.techup.travel_app.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Encodes the (created_at, id) position of the last row of a page into an opaque,
+ * URL-safe cursor so clients never depend on the keyset layout. Ranked results that
+ * cannot be keyset-paginated (full-text search) use an opaque offset cursor instead.
+ */
+public final class CursorCodec {
+
+    public record Keyset(Instant createdAt, Long id) {
+    }
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Instant createdAt, Long id) {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Keyset decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            long seconds = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, colon));
+            long id = Long.parseLong(raw.substring(colon + 1));
+            return new Keyset(Instant.ofEpochSecond(seconds, nanos), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public static String encodeOffset(int offset) {
+        String raw = "o:" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int decodeOffset(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith("o:")) {
+                throw new IllegalArgumentException("Not an offset cursor");
+            }
+            int offset = Integer.parseInt(raw.substring(2));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Negative offset");
+            }
+            return offset;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.techup.travel_app.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Minimal geohash implementation used to index trip coordinates in a B-tree friendly string column.
+ * Nearby lookups scan the 3x3 block of cells around the query point at a precision whose cells are
+ * at least as large as the search radius, then filter and sort candidates by great-circle distance.
+ */
+public final class GeoHash {
+
+    public static final int STORED_PRECISION = 9;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    // Approximate cell height/width in km at the equator for precision 1..9
+    private static final double[] CELL_HEIGHT_KM = {5000, 625, 156, 19.5, 4.89, 0.61, 0.153, 0.019, 0.0048};
+    private static final double[] CELL_WIDTH_KM = {5000, 1250, 156, 39.1, 4.89, 1.22, 0.153, 0.038, 0.0048};
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    static {
+        java.util.Arrays.fill(DECODE, -1);
+        for (int i = 0; i < BASE32.length; i++) {
+            DECODE[BASE32[i]] = i;
+        }
+    }
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Returns {minLat, maxLat, minLng, maxLng} of the cell.
+     */
+    public static double[] decodeBounds(String hash) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        boolean evenBit = true;
+
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + hash);
+            }
+            for (int mask = 16; mask > 0; mask >>= 1) {
+                boolean set = (value & mask) != 0;
+                if (evenBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (set) {
+                        minLng = mid;
+                    } else {
+                        maxLng = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{minLat, maxLat, minLng, maxLng};
+    }
+
+    /**
+     * Picks the finest precision whose cells still span the radius in both directions at the given
+     * latitude, so the 3x3 neighbourhood of the centre cell covers the whole search circle.
+     * Returns 0 when the radius is too large for any cell (callers should then skip the cell filter).
+     */
+    public static int precisionForRadius(double radiusKm, double latitude) {
+        // Cells narrow towards the poles; size them for the most poleward edge of the circle
+        double edgeLatitude = Math.abs(latitude) + radiusKm / 111.0;
+        if (edgeLatitude >= 89.0) {
+            return 0;
+        }
+        double lngScale = Math.cos(Math.toRadians(edgeLatitude));
+        for (int precision = CELL_HEIGHT_KM.length; precision >= 1; precision--) {
+            double height = CELL_HEIGHT_KM[precision - 1];
+            double width = CELL_WIDTH_KM[precision - 1] * lngScale;
+            if (Math.min(height, width) >= radiusKm) {
+                return precision;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The cell containing the point plus its (up to) eight neighbours, wrapping across the antimeridian.
+     */
+    public static Set<String> coveringCells(double latitude, double longitude, int precision) {
+        String center = encode(latitude, longitude, precision);
+        double[] bounds = decodeBounds(center);
+        double cellHeight = bounds[1] - bounds[0];
+        double cellWidth = bounds[3] - bounds[2];
+        double centerLat = (bounds[0] + bounds[1]) / 2;
+        double centerLng = (bounds[2] + bounds[3]) / 2;
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            double lat = centerLat + dLat * cellHeight;
+            if (lat < -90 || lat > 90) {
+                continue;
+            }
+            for (int dLng = -1; dLng <= 1; dLng++) {
+                double lng = centerLng + dLng * cellWidth;
+                if (lng < -180) {
+                    lng += 360;
+                } else if (lng >= 180) {
+                    lng -= 360;
+                }
+                cells.add(encode(lat, lng, precision));
+            }
+        }
+        return cells;
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
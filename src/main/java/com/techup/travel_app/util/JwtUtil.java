@@ -1,21 +1,42 @@
 package com.techup.travel_app.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.techup.travel_app.security.CustomUserDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
 
     @Value("${jwt.secret}")
     private String secret;
@@ -23,9 +44,64 @@ public class JwtUtil {
     @Value("${jwt.access-token-expiration:1800000}") // Default 30 minutes (30 * 60 * 1000)
     private Long accessTokenExpiration;
 
+    // Max number of recently verified tokens kept (keyed by SHA-256 of the token) until they expire; 0 disables
+    @Value("${jwt.verification-cache.max-size:0}")
+    private long verificationCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        // The key and parser are immutable and thread-safe, so they are built once instead of per call
+        if (StringUtils.hasText(secret)) {
+            signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            parser = Jwts.parser().verifyWith(signingKey).build();
+        }
+        if (verificationCacheMaxSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verificationCacheMaxSize)
+                    .expireAfter(Expiry.creating((String key, Claims claims) -> timeToExpiry(claims)))
+                    .recordStats()
+                    .build();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwtVerification");
+        }
+    }
+
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        if (signingKey == null) {
+            throw new IllegalStateException("JWT secret is not configured. Please set JWT_SECRET.");
+        }
+        return signingKey;
+    }
+
+    /**
+     * Verifies the signature and expiry of a token exactly once and returns its claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is malformed, tampered with or expired.
+     */
+    public Claims parseAndVerify(String token) {
+        if (verifiedTokens == null) {
+            return extractAllClaims(token);
+        }
+
+        String key = hash(token);
+        Claims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.getExpiration().after(new Date())) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -37,24 +113,51 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseAndVerify(token);
         return claimsResolver.apply(claims);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        if (parser == null) {
+            getSigningKey();
+        }
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * The user id embedded by {@link #generateAccessToken(UserDetails)}, or null for tokens issued without it.
+     */
+    public Long extractUserId(Claims claims) {
+        Object userId = claims.get(CLAIM_USER_ID);
+        if (userId instanceof Number number) {
+            return number.longValue();
+        }
+        return null;
+    }
+
+    public List<String> extractRoles(Claims claims) {
+        Object roles = claims.get(CLAIM_ROLES);
+        if (roles instanceof Collection<?> collection) {
+            return collection.stream().map(String::valueOf).toList();
+        }
+        return Collections.emptyList();
+    }
+
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public String generateAccessToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        // Id and roles travel in the token so requests can be authenticated without a user lookup
+        if (userDetails instanceof CustomUserDetails customUserDetails) {
+            claims.put(CLAIM_USER_ID, customUserDetails.getUserId());
+        }
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         return createToken(claims, userDetails.getUsername(), accessTokenExpiration);
     }
 
@@ -84,16 +187,29 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = parseAndVerify(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
     }
 
     public Boolean validateToken(String token) {
         try {
-            return !isTokenExpired(token);
+            return !isTokenExpired(parseAndVerify(token));
         } catch (Exception e) {
             return false;
         }
     }
-}
 
+    private static Duration timeToExpiry(Claims claims) {
+        long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(millis, 0));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.techup.travel_app.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class TagUtils {
+
+    private TagUtils() {
+    }
+
+    /**
+     * Splits a comma-separated tag list, trimming whitespace and dropping blanks and duplicates.
+     */
+    public static List<String> parse(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return new ArrayList<>();
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        int start = 0;
+        int length = csv.length();
+        while (start <= length) {
+            int comma = csv.indexOf(',', start);
+            int end = comma < 0 ? length : comma;
+            String tag = csv.substring(start, end).trim();
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+            start = end + 1;
+        }
+        return new ArrayList<>(tags);
+    }
+}
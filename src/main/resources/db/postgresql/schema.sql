@@ -0,0 +1,67 @@
+-- Runs after Hibernate's ddl-auto=update (spring.jpa.defer-datasource-initialization=true),
+-- for schema objects that cannot be expressed with JPA annotations. Every statement must be idempotent.
+
+-- Full-text search: title weighted A, tags + description (trips.search_text) weighted B.
+-- The indexed expression must match trip_search_matches in TripSearchFunctions.
+CREATE INDEX IF NOT EXISTS idx_trips_search ON trips USING GIN (
+    (setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+     setweight(to_tsvector('simple', coalesce(search_text, '')), 'B'))
+);
+
+-- Backfill rows written before search_text existed. This runs on every startup, but once the backfill
+-- has happened no row has a NULL search_text (the entity always sets it), so it finds nothing to update.
+-- The scan to find that out reads the whole table; move this to a one-off migration if that gets slow
+UPDATE trips
+SET search_text = trim(coalesce(array_to_string(tags, ' '), '') || ' ' || coalesce(description, ''))
+WHERE search_text IS NULL;
+
+-- Tag filters (@> for match=all, && for match=any)
+CREATE INDEX IF NOT EXISTS idx_trips_tags ON trips USING GIN (tags);
+
+-- Photo URL lookups: array_contains(photos, url) renders as photos @> ARRAY[url]. Used by StorageReaper to
+-- skip objects another trip still shows, and to find every trip showing a photo that got new variants
+CREATE INDEX IF NOT EXISTS idx_trips_photos ON trips USING GIN (photos);
+
+-- Ids moved from IDENTITY columns to pooled-lo sequences (trips_seq, users_seq), which Hibernate
+-- creates with INCREMENT BY travel.id.block-size. During a rolling deploy, instances of the previous
+-- release keep inserting without an id, so the identity is not simply dropped: one ALTER swaps it for
+-- a column default drawing from the same sequence. Each nextval is then used either as the start of
+-- a pooled-lo block (new instances) or as a single id (old instances), and the two never overlap.
+--  1. While the identity still exists, move the sequence past it. The gap of 1000 covers the ids old
+--     instances can still take from the identity before the ALTER that follows.
+--  2. Swap the identity for the default, atomically, so no insert ever finds neither.
+--  3. Move the sequence past the highest existing id.
+-- Every setval only ever goes forward, so re-running against a live sequence is a no-op. Once no
+-- instance of the IDENTITY release is left, the defaults may be dropped (ALTER COLUMN id DROP DEFAULT)
+-- in a later release; nothing else reads them. To change the block size later, run
+-- ALTER SEQUENCE ... INCREMENT BY <n> together with the property change.
+SELECT setval('users_seq', i.next_id, false)
+FROM (SELECT greatest(max(id), pg_sequence_last_value(pg_get_serial_sequence('users', 'id')::regclass)) + 1000 AS next_id
+      FROM users
+      WHERE pg_get_serial_sequence('users', 'id') IS NOT NULL) i, users_seq s, pg_sequences p
+WHERE p.schemaname = current_schema() AND p.sequencename = 'users_seq'
+  AND i.next_id > CASE WHEN s.is_called THEN s.last_value + p.increment_by ELSE s.last_value END;
+
+SELECT setval('trips_seq', i.next_id, false)
+FROM (SELECT greatest(max(id), pg_sequence_last_value(pg_get_serial_sequence('trips', 'id')::regclass)) + 1000 AS next_id
+      FROM trips
+      WHERE pg_get_serial_sequence('trips', 'id') IS NOT NULL) i, trips_seq s, pg_sequences p
+WHERE p.schemaname = current_schema() AND p.sequencename = 'trips_seq'
+  AND i.next_id > CASE WHEN s.is_called THEN s.last_value + p.increment_by ELSE s.last_value END;
+
+ALTER TABLE users
+    ALTER COLUMN id DROP IDENTITY IF EXISTS,
+    ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE trips
+    ALTER COLUMN id DROP IDENTITY IF EXISTS,
+    ALTER COLUMN id SET DEFAULT nextval('trips_seq');
+
+SELECT setval('users_seq', t.max_id + 1, false)
+FROM (SELECT max(id) AS max_id FROM users) t, users_seq s, pg_sequences p
+WHERE p.schemaname = current_schema() AND p.sequencename = 'users_seq'
+  AND t.max_id >= CASE WHEN s.is_called THEN s.last_value + p.increment_by ELSE s.last_value END;
+
+SELECT setval('trips_seq', t.max_id + 1, false)
+FROM (SELECT max(id) AS max_id FROM trips) t, trips_seq s, pg_sequences p
+WHERE p.schemaname = current_schema() AND p.sequencename = 'trips_seq'
+  AND t.max_id >= CASE WHEN s.is_called THEN s.last_value + p.increment_by ELSE s.last_value END;
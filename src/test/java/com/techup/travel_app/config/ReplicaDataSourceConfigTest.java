@@ -0,0 +1,74 @@
+package com.techup.travel_app.config;
+
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.dto.UserRequest;
+import com.techup.travel_app.service.TripService;
+import com.techup.travel_app.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The "replica" is a separate, initially empty H2 database, so rows that only exist there show
+// which pool served a query
+@SpringBootTest(properties = {
+        "spring.datasource.replica.url=jdbc:h2:mem:travel-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema-h2.sql'"
+})
+@ActiveProfiles("test")
+class ReplicaDataSourceConfigTest {
+
+    private static final long REPLICA_ONLY_USER_ID = 9001L;
+    private static final long REPLICA_ONLY_TRIP_ID = 9002L;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void seedReplica() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.update("DELETE FROM trips");
+        replica.update("DELETE FROM users");
+        replica.update("INSERT INTO users (id, email, password_hash, display_name, created_at) "
+                + "VALUES (?, 'replica-only@example.com', 'hash', 'Replica', CURRENT_TIMESTAMP)", REPLICA_ONLY_USER_ID);
+        replica.update("INSERT INTO trips (id, title, author_id, created_at, updated_at) "
+                + "VALUES (?, 'Replica trip', ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", REPLICA_ONLY_TRIP_ID, REPLICA_ONLY_USER_ID);
+    }
+
+    @Test
+    void readOnlyQueriesAreServedByReplica() {
+        assertThat(userService.getUserById(REPLICA_ONLY_USER_ID).getEmail()).isEqualTo("replica-only@example.com");
+        assertThat(userService.getAllUsers()).extracting("id").containsExactly(REPLICA_ONLY_USER_ID);
+
+        TripResponse trip = tripService.getTripById(REPLICA_ONLY_TRIP_ID);
+        assertThat(trip.getTitle()).isEqualTo("Replica trip");
+        assertThat(trip.getAuthorEmail()).isEqualTo("replica-only@example.com");
+        assertThat(tripService.getTripsByAuthorId(REPLICA_ONLY_USER_ID)).hasSize(1);
+    }
+
+    @Test
+    void writesAndTheirReadsStayOnPrimary() {
+        UserRequest request = new UserRequest();
+        request.setEmail("renamed@example.com");
+        request.setPassword("secret123");
+
+        // The lookup inside the write transaction goes to the primary, which has never seen this row
+        assertThatThrownBy(() -> userService.updateUser(REPLICA_ONLY_USER_ID, request))
+                .hasMessageContaining("User not found");
+    }
+}
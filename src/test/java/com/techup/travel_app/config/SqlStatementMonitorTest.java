@@ -0,0 +1,85 @@
+package com.techup.travel_app.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementMonitorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatementMonitor monitor;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new SqlStatementMonitor(meterRegistry, Duration.ofSeconds(1), 3, 500);
+
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-monitor;DB_CLOSE_DELAY=-1");
+        DataSource dataSource = ProxyDataSourceBuilder.create(h2).listener(monitor).build();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS items (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+        jdbc.update("DELETE FROM items");
+    }
+
+    @Test
+    void collapsesLiteralsAndInListsIntoOneShape() {
+        assertThat(SqlStatementMonitor.shapeOf("select i.id from items i\n  where i.name = 'O''Brien' and i.id in (?, ?, ?) limit 10"))
+                .isEqualTo("select i.id from items i where i.name = ? and i.id in (?...) limit ?");
+        assertThat(SqlStatementMonitor.shapeOf("select t1_0.id from trips t1_0 where t1_0.id in (?,?)"))
+                .isEqualTo(SqlStatementMonitor.shapeOf("select t1_0.id from trips t1_0 where t1_0.id in (?, ?, ?, ?)"));
+        assertThat(SqlStatementMonitor.tagOf("select t1_0.id from trips t1_0 where t1_0.id=?")).startsWith("select trips ");
+    }
+
+    @Test
+    void recordsLatencyPerShapeWithoutBindValues() {
+        for (long id = 1; id <= 5; id++) {
+            jdbc.update("INSERT INTO items (id, name) VALUES (?, ?)", id, "item-" + id);
+        }
+        jdbc.queryForList("SELECT name FROM items WHERE id = ?", String.class, 1L);
+
+        List<SqlStatementMonitor.ShapeSummary> shapes = monitor.slowest(10, "total");
+        assertThat(shapes).extracting(SqlStatementMonitor.ShapeSummary::sql)
+                .contains("insert into items (id, name) values (?...)", "select name from items where id = ?")
+                .noneMatch(sql -> sql.contains("item-"));
+        SqlStatementMonitor.ShapeSummary insert = shapes.stream()
+                .filter(shape -> shape.sql().startsWith("insert")).findFirst().orElseThrow();
+        assertThat(insert.count()).isEqualTo(5);
+        assertThat(meterRegistry.get("db.statement").tag("shape", insert.shape()).timer().count()).isEqualTo(5);
+    }
+
+    @Test
+    void flagsSelectShapesRepeatedWithinOneRequest() {
+        jdbc.update("INSERT INTO items (id, name) VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+
+        monitor.startRequest();
+        for (long id = 1; id <= 3; id++) {
+            jdbc.queryForList("SELECT name FROM items WHERE id = ?", String.class, id);
+        }
+        jdbc.queryForList("SELECT COUNT(*) FROM items", Long.class);
+        monitor.finishRequest("GET", "/api/items");
+
+        // Only the per-row lookup crossed the threshold of 3
+        assertThat(meterRegistry.get("db.statement.repeated").counters()).hasSize(1);
+        assertThat(meterRegistry.get("db.statement.repeated").tag("uri", "/api/items").counter().count()).isEqualTo(1);
+        assertThat(monitor.slowest(10, "mean")).filteredOn(shape -> shape.repeatedInRequest() > 0)
+                .extracting(SqlStatementMonitor.ShapeSummary::sql)
+                .containsExactly("select name from items where id = ?");
+
+        // Statements outside a request scope are measured but never flagged
+        for (long id = 1; id <= 3; id++) {
+            jdbc.queryForList("SELECT name FROM items WHERE id = ?", String.class, id);
+        }
+        assertThat(meterRegistry.get("db.statement.repeated").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,146 @@
+package com.techup.travel_app.controller;
+
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.exception.GlobalExceptionHandler;
+import com.techup.travel_app.service.ObjectDeletionQueue;
+import com.techup.travel_app.service.PhotoVariantService;
+import com.techup.travel_app.service.StoredObjectService;
+import com.techup.travel_app.service.SupabaseStorageService;
+import com.techup.travel_app.service.TagFacetService;
+import com.techup.travel_app.service.TripCache;
+import com.techup.travel_app.service.TripExportService;
+import com.techup.travel_app.service.TripImportService;
+import com.techup.travel_app.service.TripService;
+import com.techup.travel_app.util.CursorCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Controller and service run for real against the test database; security is out of scope here
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripControllerTest {
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        TripController controller = new TripController(tripService, mock(TagFacetService.class),
+                mock(TripImportService.class), mock(TripExportService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void malformedOrTamperedCursorsAreRejectedWithBadRequest() throws Exception {
+        mockMvc.perform(get("/api/trips").param("cursor", "%%%not-base64"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Invalid cursor")));
+        mockMvc.perform(get("/api/trips").param("cursor", encode("1735689600.0:not-an-id")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/trips").param("cursor", encode("99999999999999999999.0:1")))
+                .andExpect(status().isBadRequest());
+        // A search offset cursor is not a keyset position
+        mockMvc.perform(get("/api/trips").param("cursor", CursorCodec.encodeOffset(20)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void validCursorContinuesThePage() throws Exception {
+        User author = new User();
+        author.setEmail("cursor@example.com");
+        author.setPasswordHash("hash");
+        entityManager.persist(author);
+        Trip trip = new Trip();
+        trip.setTitle("Older");
+        trip.setAuthorId(author.getId());
+        entityManager.persist(trip);
+        entityManager.flush();
+
+        mockMvc.perform(get("/api/trips").param("cursor", CursorCodec.encode(Instant.now().plusSeconds(60), Long.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(trip.getId()))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void conditionalGetsAnswerNotModified() throws Exception {
+        User author = new User();
+        author.setEmail("etag@example.com");
+        author.setPasswordHash("hash");
+        entityManager.persist(author);
+        Trip trip = new Trip();
+        trip.setTitle("Cached by the browser");
+        trip.setAuthorId(author.getId());
+        entityManager.persist(trip);
+        entityManager.flush();
+
+        MvcResult detail = mockMvc.perform(get("/api/trips/{id}", trip.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        mockMvc.perform(get("/api/trips/{id}", trip.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, detail.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/trips/{id}", trip.getId())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, detail.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+
+        MvcResult list = mockMvc.perform(get("/api/trips"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        mockMvc.perform(get("/api/trips")
+                        .header(HttpHeaders.IF_NONE_MATCH, list.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // A stale validator gets the full response
+        mockMvc.perform(get("/api/trips/{id}", trip.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(trip.getId()));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.techup.travel_app.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripResponseSerializationBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private CursorPageResponse<TripResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring MVC uses for response bodies
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<TripResponse> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(TripResponse.builder()
+                    .id((long) i)
+                    .title("Trip " + i)
+                    .description("Temples, night markets and a day trip to Doi Suthep.")
+                    .photos(List.of("https://example.com/" + i + "/1.jpg", "https://example.com/" + i + "/2.jpg"))
+                    .tags(List.of("thailand", "food", "temples"))
+                    .latitude(18.7883)
+                    .longitude(98.9853)
+                    .authorId(1L)
+                    .authorEmail("alice@example.com")
+                    .authorDisplayName("Alice")
+                    .createdAt(Instant.now())
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+        page = CursorPageResponse.<TripResponse>builder()
+                .items(items)
+                .nextCursor("MTcwMDAwMDAwMC4wOjQy")
+                .hasMore(true)
+                .size(size)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,117 @@
+package com.techup.travel_app.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Rows/sec for a bulk insert (one transaction of {@value #ROWS} rows) with IDENTITY ids, as Trip and
+ * User had before, against the pooled-lo sequence they use now. Runs on in-memory H2, where a round
+ * trip costs microseconds; against Postgres over a network the gap is much wider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    static final int ROWS = 500;
+
+    @Param({"identity", "pooled-sequence"})
+    public String ids;
+
+    private SessionFactory sessionFactory;
+    private IntFunction<Object> newRow;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:id-benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .addAnnotatedClass(IdentityRow.class)
+                .addAnnotatedClass(SequenceRow.class)
+                .buildSessionFactory();
+        newRow = "identity".equals(ids)
+                ? i -> new IdentityRow("Trip " + i)
+                : i -> new SequenceRow("Trip " + i);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertRows() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(newRow.apply(i));
+            }
+        });
+    }
+
+    @Entity
+    @Table(name = "bench_identity_rows")
+    public static class IdentityRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @Column(nullable = false)
+        String title;
+
+        protected IdentityRow() {
+        }
+
+        IdentityRow(String title) {
+            this.title = title;
+        }
+    }
+
+    @Entity
+    @Table(name = "bench_sequence_rows")
+    public static class SequenceRow {
+
+        @Id
+        @PooledSequenceId(sequence = "bench_sequence_rows_seq")
+        Long id;
+
+        @Column(nullable = false)
+        String title;
+
+        protected SequenceRow() {
+        }
+
+        SequenceRow(String title) {
+            this.title = title;
+        }
+    }
+}
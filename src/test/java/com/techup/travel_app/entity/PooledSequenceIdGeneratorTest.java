@@ -0,0 +1,48 @@
+package com.techup.travel_app.entity;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class PooledSequenceIdGeneratorTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void allocatesIdsInBlocksAndBatchesInserts() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Trip> trips = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Trip trip = new Trip();
+            trip.setTitle("Trip " + i);
+            entityManager.persist(trip);
+            trips.add(trip);
+        }
+        // Ids are known at persist time, before anything is written
+        assertThat(trips).allSatisfy(trip -> assertThat(trip.getId()).isNotNull());
+        long nextvals = statistics.getPrepareStatementCount();
+        entityManager.flush();
+
+        // 120 ids from three blocks of 50; the inserts share one prepared statement, executed as JDBC batches
+        assertThat(nextvals).isEqualTo(3);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount() - nextvals).isEqualTo(1);
+        assertThat(trips.get(119).getId() - trips.get(0).getId()).isEqualTo(119);
+    }
+}
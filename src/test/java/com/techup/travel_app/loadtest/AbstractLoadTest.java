@@ -0,0 +1,312 @@
+package com.techup.travel_app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the app against H2 and an in-process storage stub, seeds users and trips, and drives
+ * rate-controlled workloads against it, writing per-endpoint latency percentiles and throughput to
+ * a JSON report.
+ * <p>
+ * Excluded from the default build; run with {@code mvn -Pload-test test}. Tuning knobs are system
+ * properties, e.g. {@code -Dload.duration=PT60S -Dload.rate.browse=200 -Dload.storage.latency=PT0.2S
+ * -Dload.storage.failure-rate=0.05}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "loadtest"})
+@Slf4j
+abstract class AbstractLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    protected static final List<String> SEARCH_TERMS = List.of("beach", "temple", "food", "mountain", "description");
+    private static final byte[] PHOTO = randomBytes(32 * 1024);
+
+    // One stub per JVM, shared by every load test class; its threads die with the forked test JVM
+    protected static final StorageStub STORAGE = startStorageStub();
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("supabase.url", STORAGE::baseUrl);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    protected final List<LoadUser> users = new ArrayList<>();
+    protected final List<Long> tripIds = new CopyOnWriteArrayList<>();
+
+    /**
+     * Warms up, then drives the workloads for load.duration and writes the report. Returns the
+     * per-endpoint results of the measured run.
+     */
+    protected List<LatencyRecorder.EndpointStats> run(List<Workload> workloads, String reportName) throws Exception {
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT20S"));
+
+        drive(workloads, warmup, new LatencyRecorder());
+        LatencyRecorder recorder = new LatencyRecorder();
+        long uploadsBefore = STORAGE.uploads();
+        long started = System.nanoTime();
+        drive(workloads, duration, recorder);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        List<LatencyRecorder.EndpointStats> results = recorder.summarize(elapsedSeconds);
+        Path report = writeReport(reportName, workloads, duration, elapsedSeconds, results, STORAGE.uploads() - uploadsBefore);
+
+        results.forEach(stats -> log.warn("[{}] {}: {} req ({} errors), {}/s, p50={}ms p99={}ms p999={}ms",
+                reportName, stats.endpoint(), stats.requests(), stats.errors(),
+                String.format("%.1f", stats.throughputPerSecond()),
+                stats.p50Millis(), stats.p99Millis(), stats.p999Millis()));
+        log.warn("Load test report written to {}", report.toAbsolutePath());
+        return results;
+    }
+
+    // Open-model pacing: each workload issues requests on a fixed schedule regardless of how long
+    // earlier ones take, and every request runs on its own virtual thread
+    private void drive(List<Workload> workloads, Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        if (duration.isZero()) {
+            return;
+        }
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> pacers = new ArrayList<>();
+            for (Workload workload : workloads) {
+                if (workload.ratePerSecond() > 0) {
+                    pacers.add(Thread.ofPlatform().name("pacer-" + workload.name())
+                            .start(() -> pace(workload, duration, requests, recorder)));
+                }
+            }
+            for (Thread pacer : pacers) {
+                pacer.join();
+            }
+        }
+    }
+
+    private void pace(Workload workload, Duration duration, ExecutorService requests, LatencyRecorder recorder) {
+        long interval = (long) (1_000_000_000L / workload.ratePerSecond());
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduledAt = intended;
+            requests.submit(() -> {
+                boolean success;
+                try {
+                    success = workload.request().call() < 400;
+                } catch (Exception e) {
+                    success = false;
+                }
+                recorder.record(workload.name(), System.nanoTime() - scheduledAt, success);
+            });
+        }
+    }
+
+    protected void seed(int userCount, int tripsPerUser) throws Exception {
+        for (int i = 0; i < userCount; i++) {
+            String email = "load-" + UUID.randomUUID() + "@example.com";
+            JsonNode registered = json(send(HttpRequest.newBuilder(uri("/api/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(jsonBody(Map.of("email", email, "password", PASSWORD, "displayName", "Load user " + i)))));
+            String token = json(login(email)).path("accessToken").asText();
+            LoadUser user = new LoadUser(email, registered.path("user").path("id").asLong(), token,
+                    new CopyOnWriteArrayList<>());
+            users.add(user);
+
+            for (int t = 0; t < tripsPerUser; t++) {
+                Map<String, Object> trip = new LinkedHashMap<>();
+                trip.put("title", "Seed trip " + i + "-" + t);
+                trip.put("description", "Description with " + SEARCH_TERMS.get(t % SEARCH_TERMS.size()));
+                trip.put("tags", List.of(SEARCH_TERMS.get((i + t) % SEARCH_TERMS.size())));
+                trip.put("authorId", user.id());
+                JsonNode created = json(send(HttpRequest.newBuilder(uri("/api/trips"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(jsonBody(trip))));
+                long id = created.path("id").asLong();
+                user.tripIds().add(id);
+                tripIds.add(id);
+            }
+        }
+    }
+
+    protected int get(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(uri(path)).GET()).statusCode();
+    }
+
+    protected HttpResponse<String> login(String email) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(jsonBody(Map.of("email", email, "password", PASSWORD))));
+    }
+
+    protected int createWithPhotos(LoadUser user) throws IOException, InterruptedException {
+        String boundary = "load-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeField(body, boundary, "title", "Load trip " + ThreadLocalRandom.current().nextInt(1_000_000));
+        writeField(body, boundary, "tags", "load," + randomOf(SEARCH_TERMS));
+        writeFile(body, boundary, "photos", "first.jpg");
+        writeFile(body, boundary, "photos", "second.jpg");
+        body.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/trips"))
+                .header("Authorization", "Bearer " + user.token())
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+        if (response.statusCode() == 201) {
+            long id = json(response).path("id").asLong();
+            user.tripIds().add(id);
+            tripIds.add(id);
+        }
+        return response.statusCode();
+    }
+
+    protected int update(LoadUser user) throws IOException, InterruptedException {
+        Long tripId = randomOf(user.tripIds());
+        Map<String, Object> trip = new LinkedHashMap<>();
+        trip.put("title", "Updated trip " + tripId);
+        trip.put("description", "Updated description with " + randomOf(SEARCH_TERMS));
+        trip.put("tags", List.of(randomOf(SEARCH_TERMS)));
+        trip.put("authorId", user.id());
+        return send(HttpRequest.newBuilder(uri("/api/trips/" + tripId))
+                .header("Authorization", "Bearer " + user.token())
+                .header("Content-Type", "application/json")
+                .PUT(jsonBody(trip))).statusCode();
+    }
+
+    private Path writeReport(String reportName, List<Workload> workloads, Duration duration, double elapsedSeconds,
+                             List<LatencyRecorder.EndpointStats> results, long storageUploads) throws IOException {
+        Map<String, Object> rates = new LinkedHashMap<>();
+        workloads.forEach(workload -> rates.put(workload.name(), workload.ratePerSecond()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("name", reportName);
+        report.put("threads", Boolean.parseBoolean(environment.getProperty("spring.threads.virtual.enabled", "false"))
+                ? "virtual" : "platform");
+        report.put("duration", duration.toString());
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("targetRatesPerSecond", rates);
+        report.put("storage", Map.of(
+                "latency", STORAGE.latency().toString(),
+                "failureRate", Double.parseDouble(System.getProperty("load.storage.failure-rate", "0.02")),
+                "uploads", storageUploads,
+                "failedUploads", STORAGE.failedUploads(),
+                "deletes", STORAGE.deletes()));
+        report.put("endpoints", results);
+
+        Path path = Path.of(System.getProperty("load.report-dir", "target"), "load-test-" + reportName + ".json");
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+        return path;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Object value) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(value));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void writeField(ByteArrayOutputStream body, String boundary, String name, String value) {
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeFile(ByteArrayOutputStream body, String boundary, String name, String filename) {
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"; filename=\""
+                + URLEncoder.encode(filename, StandardCharsets.UTF_8) + "\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(PHOTO);
+        body.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static double rate(String workload, double defaultRate) {
+        return Double.parseDouble(System.getProperty("load.rate." + workload, String.valueOf(defaultRate)));
+    }
+
+    protected static <T> T randomOf(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static StorageStub startStorageStub() {
+        try {
+            return new StorageStub(
+                    Duration.parse(System.getProperty("load.storage.latency", "PT0.05S")),
+                    Double.parseDouble(System.getProperty("load.storage.failure-rate", "0.02")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected record Workload(String name, double ratePerSecond, Callable<Integer> request) {
+    }
+
+    protected record LoadUser(String email, Long id, String token, List<Long> tripIds) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.techup.travel_app.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-endpoint latencies. Latency is measured from the request's intended start time, not
+ * from when it was actually sent, so a stalled server shows up in the tail instead of being hidden.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latencies.add(latencyNanos);
+        if (!success) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    List<EndpointStats> summarize(double elapsedSeconds) {
+        List<EndpointStats> summary = new ArrayList<>();
+        endpoints.forEach((name, stats) -> {
+            long[] sorted = stats.latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            summary.add(new EndpointStats(
+                    name,
+                    sorted.length,
+                    stats.errors.get(),
+                    sorted.length / elapsedSeconds,
+                    percentileMillis(sorted, 0.50),
+                    percentileMillis(sorted, 0.99),
+                    percentileMillis(sorted, 0.999),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0));
+        });
+        summary.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        return summary;
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+
+    record EndpointStats(String endpoint, long requests, long errors, double throughputPerSecond,
+                         double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    private static final class Endpoint {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,15 @@
+package com.techup.travel_app.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=false",
+        "server.tomcat.threads.max=${load.tomcat.max-threads:50}"
+})
+class PlatformThreadsLoadTest extends ThreadModelLoadTest {
+
+    @Override
+    protected String threadModel() {
+        return "platform";
+    }
+}
@@ -0,0 +1,121 @@
+package com.techup.travel_app.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the Supabase storage API. Uploads and deletes succeed after a configurable
+ * latency; a configurable fraction of uploads fails with a 500 to exercise the cleanup paths.
+ */
+class StorageStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile Duration latency;
+    private final double failureRate;
+
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicLong failedUploads = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    StorageStub(Duration latency, double failureRate) throws IOException {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/storage/v1/object/", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            bytesReceived.addAndGet(body.transferTo(OutputStream.nullOutputStream()));
+            simulateLatency();
+
+            switch (exchange.getRequestMethod()) {
+                case "POST", "PUT" -> {
+                    uploads.incrementAndGet();
+                    if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                        failedUploads.incrementAndGet();
+                        respond(exchange, 500, "{\"error\":\"injected failure\"}");
+                    } else {
+                        respond(exchange, 200, "{\"Key\":\"" + exchange.getRequestURI().getPath() + "\"}");
+                    }
+                }
+                case "DELETE" -> {
+                    deletes.incrementAndGet();
+                    respond(exchange, 200, "[]");
+                }
+                default -> respond(exchange, 405, "{}");
+            }
+        }
+    }
+
+    private void simulateLatency() {
+        if (latency.isZero()) {
+            return;
+        }
+        // +-25% jitter around the configured latency
+        long millis = latency.toMillis();
+        long jitter = millis / 4;
+        long sleep = jitter > 0 ? millis - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1) : millis;
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    Duration latency() {
+        return latency;
+    }
+
+    void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    long uploads() {
+        return uploads.get();
+    }
+
+    long failedUploads() {
+        return failedUploads.get();
+    }
+
+    long deletes() {
+        return deletes.get();
+    }
+
+    long bytesReceived() {
+        return bytesReceived.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,57 @@
+package com.techup.travel_app.loadtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The same browse and upload workload, run by {@link PlatformThreadsLoadTest} on Tomcat's
+ * platform-thread pool and by {@link VirtualThreadsLoadTest} on virtual threads
+ * (spring.threads.virtual.enabled). Compare load-test-threads-platform.json with
+ * load-test-threads-virtual.json.
+ * <p>
+ * Storage latency defaults to 200ms here so uploads hold request threads long enough for the
+ * thread model to matter; the platform pool is capped by load.tomcat.max-threads (default 50).
+ */
+abstract class ThreadModelLoadTest extends AbstractLoadTest {
+
+    private Duration previousStorageLatency;
+
+    protected abstract String threadModel();
+
+    @BeforeEach
+    void slowDownStorage() {
+        previousStorageLatency = STORAGE.latency();
+        STORAGE.setLatency(Duration.parse(System.getProperty("load.threads.storage-latency", "PT0.2S")));
+    }
+
+    @AfterEach
+    void restoreStorage() {
+        STORAGE.setLatency(previousStorageLatency);
+    }
+
+    @Test
+    void browseAndUploadWorkload() throws Exception {
+        seed(Integer.getInteger("load.users", 10), Integer.getInteger("load.trips-per-user", 20));
+
+        List<Workload> workloads = List.of(
+                new Workload("GET /api/trips", rate("browse", 40),
+                        () -> get("/api/trips?size=20")),
+                new Workload("GET /api/trips/{id}", rate("detail", 60),
+                        () -> get("/api/trips/" + randomOf(tripIds))),
+                new Workload("POST /api/trips (photos)", rate("upload", 20),
+                        () -> createWithPhotos(randomOf(users))));
+
+        List<LatencyRecorder.EndpointStats> results = run(workloads, "threads-" + threadModel());
+
+        assertThat(results).hasSize(workloads.size());
+        assertThat(results)
+                .filteredOn(stats -> stats.endpoint().startsWith("GET"))
+                .allSatisfy(stats -> assertThat(stats.errors()).isZero());
+    }
+}
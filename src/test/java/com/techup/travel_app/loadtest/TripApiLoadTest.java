@@ -0,0 +1,45 @@
+package com.techup.travel_app.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed workload across browse, detail, search, create-with-photos, update and login.
+ * Report: target/load-test-mixed.json.
+ */
+class TripApiLoadTest extends AbstractLoadTest {
+
+    @Test
+    void mixedWorkload() throws Exception {
+        seed(Integer.getInteger("load.users", 10), Integer.getInteger("load.trips-per-user", 20));
+
+        List<Workload> workloads = List.of(
+                new Workload("GET /api/trips", rate("browse", 40),
+                        () -> get("/api/trips?size=20")),
+                new Workload("GET /api/trips/{id}", rate("detail", 60),
+                        () -> get("/api/trips/" + randomOf(tripIds))),
+                new Workload("GET /api/trips/search", rate("search", 20),
+                        () -> get("/api/trips/search?q=" + randomOf(SEARCH_TERMS) + "&size=20")),
+                new Workload("POST /api/trips (photos)", rate("create", 4),
+                        () -> createWithPhotos(randomOf(users))),
+                new Workload("PUT /api/trips/{id}", rate("update", 4),
+                        () -> update(randomOf(users))),
+                new Workload("POST /api/auth/login", rate("login", 2),
+                        () -> login(randomOf(users).email()).statusCode()));
+
+        List<LatencyRecorder.EndpointStats> results = run(workloads, "mixed");
+
+        assertThat(results).extracting(LatencyRecorder.EndpointStats::endpoint)
+                .containsExactlyInAnyOrderElementsOf(workloads.stream()
+                        .filter(workload -> workload.ratePerSecond() > 0)
+                        .map(Workload::name)
+                        .toList());
+        // Only the photo uploads see injected storage failures; everything else must stay clean
+        assertThat(results)
+                .filteredOn(stats -> !stats.endpoint().startsWith("POST /api/trips"))
+                .allSatisfy(stats -> assertThat(stats.errors()).isZero());
+    }
+}
@@ -0,0 +1,15 @@
+package com.techup.travel_app.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "server.tomcat.threads.max=${load.tomcat.max-threads:50}"
+})
+class VirtualThreadsLoadTest extends ThreadModelLoadTest {
+
+    @Override
+    protected String threadModel() {
+        return "virtual";
+    }
+}
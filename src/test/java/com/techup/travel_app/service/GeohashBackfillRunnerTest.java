@@ -0,0 +1,65 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.util.GeoHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not wrapped in a test transaction: the runner commits one transaction per batch
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(GeohashBackfillRunner.class)
+class GeohashBackfillRunnerTest {
+
+    @Autowired
+    private GeohashBackfillRunner backfillRunner;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        tripRepository.deleteAll();
+    }
+
+    @Test
+    void fillsMissingGeohashesWithoutTouchingUpdatedAt() {
+        Trip located = trip("Bangkok", 13.7563, 100.5018);
+        Trip unlocated = trip("Somewhere", null, null);
+        // As written before the geohash column existed
+        jdbcTemplate.update("UPDATE trips SET geohash = NULL");
+        Trip before = tripRepository.findById(located.getId()).orElseThrow();
+
+        backfillRunner.run(new DefaultApplicationArguments());
+
+        Trip after = tripRepository.findById(located.getId()).orElseThrow();
+        assertThat(after.getGeohash()).isEqualTo(GeoHash.encode(13.7563, 100.5018, GeoHash.STORED_PRECISION));
+        assertThat(after.getUpdatedAt()).isEqualTo(before.getUpdatedAt());
+        assertThat(tripRepository.findById(unlocated.getId()).orElseThrow().getGeohash()).isNull();
+    }
+
+    private Trip trip(String title, Double latitude, Double longitude) {
+        Trip trip = new Trip();
+        trip.setTitle(title);
+        trip.setLatitude(latitude);
+        trip.setLongitude(longitude);
+        return tripRepository.save(trip);
+    }
+}
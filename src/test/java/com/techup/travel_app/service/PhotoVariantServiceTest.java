@@ -0,0 +1,129 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.PhotoVariant;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.repository.PhotoVariantRepository;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.util.ImageResizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Not wrapped in a test transaction: variants are written from the worker threads
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PhotoVariantService.class, TripCache.class, SimpleMeterRegistry.class})
+class PhotoVariantServiceTest {
+
+    private static final String PHOTO_URL = "https://project.supabase.co/storage/v1/object/public/trips/a-beach.png";
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Autowired
+    private PhotoVariantRepository photoVariantRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private TripCache tripCache;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    @AfterEach
+    void tearDown() {
+        photoVariantRepository.deleteAll();
+        tripRepository.deleteAll();
+    }
+
+    @Test
+    void storesEveryVariantAndBustsEveryTripShowingThePhoto() throws Exception {
+        Trip trip = tripWithPhoto("Beach");
+        Trip sharing = tripWithPhoto("Same beach, another trip");
+        Instant updatedBefore = tripRepository.findById(trip.getId()).orElseThrow().getUpdatedAt();
+        tripCache.get(trip.getId(), id -> new TripResponse());
+        tripCache.get(sharing.getId(), id -> new TripResponse());
+
+        byte[] photo = ImageResizer.encodeJpeg(new BufferedImage(2400, 1800, BufferedImage.TYPE_INT_RGB), 0.9f);
+        when(storageService.isBucketUrl(PHOTO_URL)).thenReturn(true);
+        when(storageService.toObjectName(PHOTO_URL)).thenReturn("trips/a-beach.png");
+        when(storageService.readObject(eq(PHOTO_URL), any())).thenAnswer(invocation ->
+                invocation.<SupabaseStorageService.ContentReader<?>>getArgument(1).read(new ByteArrayInputStream(photo)));
+        when(storageService.uploadObject(anyString(), any(), eq(MediaType.IMAGE_JPEG)))
+                .thenAnswer(invocation -> "https://cdn/" + invocation.getArgument(0));
+
+        photoVariantService.generateVariants(List.of(PHOTO_URL, "https://elsewhere.example.com/x.jpg"));
+
+        verify(storageService, timeout(5_000)).uploadObject(eq("trips/a-beach.png.thumbnail.jpg"), any(), any());
+        PhotoVariant variants = awaitVariants(PHOTO_URL);
+        assertThat(variants.getFullUrl()).isEqualTo("https://cdn/trips/a-beach.png.full.jpg");
+        assertThat(variants.getCardUrl()).isEqualTo("https://cdn/trips/a-beach.png.card.jpg");
+        assertThat(variants.getThumbnailUrl()).isEqualTo("https://cdn/trips/a-beach.png.thumbnail.jpg");
+        verify(storageService, never()).readObject(eq("https://elsewhere.example.com/x.jpg"), any());
+
+        // Both trips move their variant version and leave the cache; neither looks edited
+        await(() -> tripCache.peek(trip.getId()) == null && tripCache.peek(sharing.getId()) == null);
+        for (Trip shown : List.of(trip, sharing)) {
+            Trip reloaded = tripRepository.findById(shown.getId()).orElseThrow();
+            assertThat(reloaded.getVariantsUpdatedAt()).isNotNull();
+            assertThat(reloaded.getUpdatedAt()).isEqualTo(shown.getUpdatedAt());
+        }
+        assertThat(tripRepository.findById(trip.getId()).orElseThrow().getUpdatedAt()).isEqualTo(updatedBefore);
+    }
+
+    private Trip tripWithPhoto(String title) {
+        Trip trip = new Trip();
+        trip.setTitle(title);
+        trip.setPhotos(List.of(PHOTO_URL));
+        trip = tripRepository.save(trip);
+        return tripRepository.findById(trip.getId()).orElseThrow();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private PhotoVariant awaitVariants(String photoUrl) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        Optional<PhotoVariant> variants = photoVariantRepository.findById(photoUrl);
+        while (variants.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            variants = photoVariantRepository.findById(photoUrl);
+        }
+        return variants.orElseThrow();
+    }
+}
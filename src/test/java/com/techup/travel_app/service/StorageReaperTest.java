@@ -0,0 +1,235 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.entity.ObjectDeletion;
+import com.techup.travel_app.entity.PhotoVariant;
+import com.techup.travel_app.entity.StoredObject;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.repository.ObjectDeletionRepository;
+import com.techup.travel_app.repository.PhotoVariantRepository;
+import com.techup.travel_app.repository.StoredObjectRepository;
+import com.techup.travel_app.repository.TripRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Not wrapped in a test transaction: the reaper runs each batch in its own transaction
+@DataJpaTest(properties = {
+        "storage.gc.enabled=true",
+        "storage.gc.batch-size=2",
+        "storage.gc.max-calls-per-second=1000",
+        "storage.gc.retry.initial-backoff=1m"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StorageReaper.class, ObjectDeletionQueue.class, SimpleMeterRegistry.class})
+class StorageReaperTest {
+
+    private static final String PUBLIC_PREFIX = "https://project.supabase.co/storage/v1/object/public/uploads/";
+    private static final String DIGEST = "c".repeat(64);
+
+    @Autowired
+    private StorageReaper storageReaper;
+
+    @Autowired
+    private ObjectDeletionQueue objectDeletionQueue;
+
+    @Autowired
+    private ObjectDeletionRepository objectDeletionRepository;
+
+    @Autowired
+    private StoredObjectRepository storedObjectRepository;
+
+    @Autowired
+    private PhotoVariantRepository photoVariantRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        when(storageService.publicUrl(anyString())).thenAnswer(invocation -> PUBLIC_PREFIX + invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        objectDeletionRepository.deleteAll();
+        storedObjectRepository.deleteAll();
+        photoVariantRepository.deleteAll();
+        tripRepository.deleteAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deletesOrphanedPhotosWithTheirVariantsInOneCall() {
+        queue("trips/1-a.jpg");
+        queue("trips/2-b.jpg");
+        photoVariantRepository.save(new PhotoVariant(PUBLIC_PREFIX + "trips/1-a.jpg",
+                "t", "c", "f", null));
+
+        assertThat(storageReaper.reapBatch()).isEqualTo(2);
+
+        ArgumentCaptor<List<String>> names = ArgumentCaptor.forClass(List.class);
+        verify(storageService).deleteObjects(names.capture());
+        assertThat(names.getValue()).containsExactly(
+                "trips/1-a.jpg", "trips/1-a.jpg.full.jpg", "trips/1-a.jpg.card.jpg", "trips/1-a.jpg.thumbnail.jpg",
+                "trips/2-b.jpg", "trips/2-b.jpg.full.jpg", "trips/2-b.jpg.card.jpg", "trips/2-b.jpg.thumbnail.jpg");
+        assertThat(objectDeletionRepository.count()).isZero();
+        assertThat(photoVariantRepository.count()).isZero();
+    }
+
+    @Test
+    void keepsPhotosThatATripStillShows() {
+        Trip trip = new Trip();
+        trip.setTitle("Re-added");
+        trip.setPhotos(List.of(PUBLIC_PREFIX + "trips/1-a.jpg"));
+        tripRepository.save(trip);
+        queue("trips/1-a.jpg");
+
+        storageReaper.reapBatch();
+
+        verify(storageService, never()).deleteObjects(anyList());
+        assertThat(objectDeletionRepository.count()).isZero();
+    }
+
+    @Test
+    void respectsReferenceCountsAndRecentReuseOfContentAddressedPhotos() {
+        String objectName = "trips/sha256/" + DIGEST;
+        StoredObject stored = storedObjectRepository.save(new StoredObject(DIGEST, objectName, 10, "image/jpeg",
+                1, null, Instant.now().minus(Duration.ofDays(1)), null));
+        queue(objectName);
+
+        // Still referenced by a trip: dropped from the queue, object kept
+        storageReaper.reapBatch();
+        verify(storageService, never()).deleteObjects(anyList());
+        assertThat(objectDeletionRepository.count()).isZero();
+
+        // Unreferenced but just reused by an upload: postponed
+        stored.setRefCount(0);
+        stored.setLastUsedAt(Instant.now());
+        storedObjectRepository.save(stored);
+        queue(objectName);
+        storageReaper.reapBatch();
+        verify(storageService, never()).deleteObjects(anyList());
+        assertThat(objectDeletionRepository.findAll()).singleElement()
+                .satisfies(deletion -> assertThat(deletion.getNotBefore()).isAfter(Instant.now().plus(Duration.ofMinutes(59))));
+
+        // Unreferenced and idle: deleted, and its index row with it
+        objectDeletionRepository.deleteAll();
+        stored.setLastUsedAt(Instant.now().minus(Duration.ofDays(1)));
+        storedObjectRepository.save(stored);
+        queue(objectName);
+        storageReaper.reapBatch();
+        verify(storageService).deleteObjects(anyList());
+        assertThat(storedObjectRepository.existsById(DIGEST)).isFalse();
+        assertThat(objectDeletionRepository.count()).isZero();
+    }
+
+    @Test
+    void callsStorageOutsideTheTransactionWithTheBatchLeasedAndMarked() {
+        String objectName = "trips/sha256/" + DIGEST;
+        storedObjectRepository.save(new StoredObject(DIGEST, objectName, 10, "image/jpeg",
+                0, null, Instant.now().minus(Duration.ofDays(1)), null));
+        queue(objectName);
+        List<Object> duringCall = new ArrayList<>();
+        doAnswer(invocation -> {
+            duringCall.add(TransactionSynchronizationManager.isActualTransactionActive());
+            duringCall.add(storedObjectRepository.findById(DIGEST).orElseThrow().getDeletingSince() != null);
+            duringCall.add(objectDeletionRepository.findAll().get(0).getNotBefore().isAfter(Instant.now().plusSeconds(60)));
+            return null;
+        }).when(storageService).deleteObjects(anyList());
+
+        assertThat(storageReaper.reapBatch()).isEqualTo(1);
+
+        // No transaction open; the index row is marked and the queue row leased
+        assertThat(duringCall).containsExactly(false, true, true);
+        verify(storageService).deleteObjects(anyList());
+        assertThat(storedObjectRepository.existsById(DIGEST)).isFalse();
+        assertThat(objectDeletionRepository.count()).isZero();
+    }
+
+    @Test
+    void photosAddedBackAreWithdrawnUnlessABatchHasClaimedThem() {
+        queue("trips/1-a.jpg");
+        objectDeletionRepository.save(new ObjectDeletion("trips/2-b.jpg", Instant.now().plus(Duration.ofMinutes(10))));
+        List<Object> duringCall = new ArrayList<>();
+        doAnswer(invocation -> {
+            // A trip update re-adds both photos while the bucket call is in flight
+            try {
+                objectDeletionQueue.cancel(List.of("trips/1-a.jpg"));
+                duringCall.add("withdrawn");
+            } catch (RuntimeException e) {
+                duringCall.add(e.getMessage());
+            }
+            objectDeletionQueue.cancel(List.of("trips/2-b.jpg"));
+            return null;
+        }).when(storageService).deleteObjects(anyList());
+
+        assertThat(storageReaper.reapBatch()).isEqualTo(1);
+
+        assertThat(duringCall).singleElement().asString().contains("being removed", "trips/1-a.jpg");
+        // The queued row was withdrawn; the claimed one finished normally
+        assertThat(objectDeletionRepository.count()).isZero();
+    }
+
+    @Test
+    void reschedulesFailedBatchesWithBackoff() {
+        queue("trips/1-a.jpg");
+        doThrow(new IllegalStateException("503 Service Unavailable")).when(storageService).deleteObjects(anyList());
+
+        assertThat(storageReaper.reapBatch()).isEqualTo(-1);
+
+        assertThat(objectDeletionRepository.findAll()).singleElement().satisfies(deletion -> {
+            assertThat(deletion.getAttempts()).isEqualTo(1);
+            assertThat(deletion.getLastError()).contains("503");
+            assertThat(deletion.getNotBefore()).isAfter(Instant.now().plusSeconds(50));
+        });
+        assertThat(storageReaper.backoff(3)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(storageReaper.backoff(30)).isEqualTo(Duration.ofHours(6));
+    }
+
+    @Test
+    void runDrainsTheQueueOneBulkCallPerBatch() {
+        for (int i = 0; i < 5; i++) {
+            queue("trips/" + i + "-photo.jpg");
+        }
+
+        storageReaper.reap();
+
+        verify(storageService, times(3)).deleteObjects(anyList());
+        assertThat(objectDeletionRepository.count()).isZero();
+    }
+
+    private void queue(String objectName) {
+        objectDeletionRepository.save(new ObjectDeletion(objectName, Instant.now().minusSeconds(1)));
+    }
+}
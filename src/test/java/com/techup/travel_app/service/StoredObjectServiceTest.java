@@ -0,0 +1,104 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.entity.StoredObject;
+import com.techup.travel_app.repository.StoredObjectRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(StoredObjectService.class)
+class StoredObjectServiceTest {
+
+    private static final String PUBLIC_PREFIX = "https://project.supabase.co/storage/v1/object/public/uploads/";
+    private static final String SHARED = "a".repeat(64);
+    private static final String OTHER = "b".repeat(64);
+
+    @Autowired
+    private StoredObjectService storedObjectService;
+
+    @Autowired
+    private StoredObjectRepository storedObjectRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void recognisesOnlyContentAddressedNames() {
+        assertThat(StoredObjectService.digestOf(url(SHARED))).isEqualTo(SHARED);
+        assertThat(StoredObjectService.digestOf("trips/sha256/" + SHARED)).isEqualTo(SHARED);
+        assertThat(StoredObjectService.digestOf(url(SHARED) + ".card.jpg")).isNull();
+        assertThat(StoredObjectService.digestOf(PUBLIC_PREFIX + "trips/3f2c-beach.jpg")).isNull();
+        assertThat(StoredObjectService.digestOf(null)).isNull();
+    }
+
+    @Test
+    void reuseOnlyMatchesRegisteredDigests() {
+        assertThat(storedObjectService.reuse(SHARED)).isFalse();
+
+        storedObjectService.register(SHARED, 1024, "image/jpeg");
+        storedObjectService.register(SHARED, 1024, "image/jpeg");
+
+        assertThat(storedObjectService.reuse(SHARED)).isTrue();
+        assertThat(storedObjectRepository.findById(SHARED)).get()
+                .extracting(StoredObject::getObjectName, StoredObject::getRefCount)
+                .containsExactly("trips/sha256/" + SHARED, 0);
+    }
+
+    @Test
+    void reuseMissesObjectsTheReaperHasClaimed() {
+        storedObjectService.register(SHARED, 1024, "image/jpeg");
+        StoredObject stored = storedObjectRepository.findById(SHARED).orElseThrow();
+        stored.setDeletingSince(Instant.now());
+        storedObjectRepository.save(stored);
+
+        assertThat(storedObjectService.reuse(SHARED)).isFalse();
+        assertThat(storedObjectService.isBeingDeleted(SHARED)).isTrue();
+        assertThat(storedObjectService.isBeingDeleted("d".repeat(64))).isFalse();
+    }
+
+    @Test
+    void referenceCountsFollowTripPhotosAcrossCreateUpdateAndDelete() {
+        storedObjectService.register(SHARED, 1024, "image/jpeg");
+        storedObjectService.register(OTHER, 2048, "image/png");
+        String external = "https://images.example.com/beach.jpg";
+
+        // Two trips share one photo
+        storedObjectService.updateReferences(List.of(), List.of(url(SHARED), external));
+        storedObjectService.updateReferences(List.of(), List.of(url(SHARED), url(OTHER)));
+        assertThat(refCount(SHARED)).isEqualTo(2);
+        assertThat(refCount(OTHER)).isEqualTo(1);
+
+        // Reordering photos changes nothing; dropping one releases it
+        storedObjectService.updateReferences(List.of(url(SHARED), url(OTHER)), List.of(url(OTHER), url(SHARED)));
+        storedObjectService.updateReferences(List.of(url(SHARED), url(OTHER)), List.of(url(OTHER)));
+        assertThat(refCount(SHARED)).isEqualTo(1);
+
+        // Deleting the other trip
+        storedObjectService.updateReferences(List.of(url(SHARED), external), List.of());
+        storedObjectService.updateReferences(List.of(url(SHARED)), List.of());
+        assertThat(refCount(SHARED)).isZero();
+        assertThat(refCount(OTHER)).isEqualTo(1);
+    }
+
+    private int refCount(String digest) {
+        entityManager.flush();
+        entityManager.clear();
+        return storedObjectRepository.findById(digest).orElseThrow().getRefCount();
+    }
+
+    private static String url(String digest) {
+        return PUBLIC_PREFIX + "trips/sha256/" + digest;
+    }
+}
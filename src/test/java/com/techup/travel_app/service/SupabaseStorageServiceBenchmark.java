@@ -0,0 +1,47 @@
+package com.techup.travel_app.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SupabaseStorageServiceBenchmark {
+
+    @Param({"IMG_2041.jpg", "  Beach day (2) – sunset.HEIC "})
+    public String filename;
+
+    private SupabaseStorageService storageService;
+
+    @Setup
+    public void setUp() {
+        storageService = new SupabaseStorageService(new RestTemplate(), new SimpleMeterRegistry(), null, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        storageService.shutdownUploadExecutor();
+    }
+
+    @Benchmark
+    public String buildObjectName() {
+        return storageService.buildObjectName(filename);
+    }
+}
@@ -0,0 +1,282 @@
+package com.techup.travel_app.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.techup.travel_app.config.RestClientConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SupabaseStorageServiceTest {
+
+    private static final String BASE_URL = "https://storage.example.com";
+
+    private RestTemplate restTemplate;
+    private StoredObjectService storedObjectService;
+    private ObjectDeletionQueue objectDeletionQueue;
+    private SupabaseStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        storedObjectService = mock(StoredObjectService.class);
+        objectDeletionQueue = mock(ObjectDeletionQueue.class);
+        storageService = new SupabaseStorageService(restTemplate, new SimpleMeterRegistry(), storedObjectService, objectDeletionQueue);
+        ReflectionTestUtils.setField(storageService, "supabaseUrl", BASE_URL);
+        ReflectionTestUtils.setField(storageService, "bucketName", "uploads");
+        ReflectionTestUtils.setField(storageService, "apiKey", "key");
+        ReflectionTestUtils.setField(storageService, "uploadConcurrency", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdownUploadExecutor();
+    }
+
+    @Test
+    void uploadsInParallelAndKeepsPhotoOrder() {
+        when(restTemplate.exchange(startsWith(BASE_URL + "/storage/v1/object/uploads/trips/"),
+                eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok("{}"));
+
+        List<MultipartFile> photos = List.of(photo("a.jpg"), photo("b.jpg"), photo("c.jpg"), photo("d.jpg"));
+        List<String> urls = storageService.uploadTripPhotos(photos);
+
+        assertThat(urls).hasSize(4);
+        assertThat(urls.get(0)).startsWith(BASE_URL + "/storage/v1/object/public/uploads/trips/").endsWith("-a.jpg");
+        assertThat(urls.get(1)).endsWith("-b.jpg");
+        assertThat(urls.get(2)).endsWith("-c.jpg");
+        assertThat(urls.get(3)).endsWith("-d.jpg");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deletesAlreadyUploadedObjectsWhenOneUploadFails() {
+        AtomicInteger calls = new AtomicInteger();
+        when(restTemplate.exchange(startsWith(BASE_URL + "/storage/v1/object/uploads/trips/"),
+                eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenAnswer(invocation -> {
+                    String url = invocation.getArgument(0);
+                    calls.incrementAndGet();
+                    if (url.endsWith("-bad.jpg")) {
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("boom");
+                    }
+                    return ResponseEntity.ok("{}");
+                });
+        when(restTemplate.exchange(eq(BASE_URL + "/storage/v1/object/uploads"),
+                eq(HttpMethod.DELETE), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok("[]"));
+
+        assertThatThrownBy(() -> storageService.uploadTripPhotos(List.of(photo("ok.jpg"), photo("bad.jpg"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("bad.jpg");
+
+        var captor = org.mockito.ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq(BASE_URL + "/storage/v1/object/uploads"),
+                eq(HttpMethod.DELETE), captor.capture(), eq(String.class));
+        Map<String, List<String>> body = (Map<String, List<String>>) captor.getValue().getBody();
+        assertThat(body.get("prefixes")).singleElement().asString().startsWith("trips/").endsWith("-ok.jpg");
+    }
+
+    @Test
+    void contentAddressedUploadsSkipBytesTheBucketAlreadyHolds() {
+        ReflectionTestUtils.setField(storageService, "contentAddressed", true);
+        String known = sha256Hex(new byte[]{1, 2, 3});
+        String fresh = sha256Hex(new byte[]{4, 5, 6});
+        when(storedObjectService.reuse(known)).thenReturn(true);
+        when(restTemplate.exchange(startsWith(BASE_URL + "/storage/v1/object/uploads/trips/sha256/"),
+                eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok("{}"));
+
+        List<String> urls = storageService.uploadTripPhotos(List.of(
+                photo("a.jpg"),
+                new MockMultipartFile("photos", "b.jpg", "image/jpeg", new byte[]{4, 5, 6})));
+
+        assertThat(urls).containsExactly(
+                BASE_URL + "/storage/v1/object/public/uploads/trips/sha256/" + known,
+                BASE_URL + "/storage/v1/object/public/uploads/trips/sha256/" + fresh);
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class));
+        verify(storedObjectService).register(fresh, 3, "image/jpeg");
+        verify(storedObjectService, never()).register(eq(known), anyLong(), any());
+    }
+
+    @Test
+    void contentAddressedUploadChecksTheBucketOnIndexMiss() {
+        ReflectionTestUtils.setField(storageService, "contentAddressed", true);
+        ReflectionTestUtils.setField(storageService, "checkBucket", true);
+        String digest = sha256Hex(new byte[]{1, 2, 3});
+        when(restTemplate.exchange(eq(BASE_URL + "/storage/v1/object/uploads/trips/sha256/" + digest),
+                eq(HttpMethod.HEAD), any(HttpEntity.class), eq(Void.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        List<String> urls = storageService.uploadTripPhotos(List.of(photo("a.jpg")));
+
+        assertThat(urls).singleElement().asString().endsWith("/trips/sha256/" + digest);
+        verify(restTemplate, never()).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class));
+        verify(storedObjectService).register(digest, 3, "image/jpeg");
+    }
+
+    @Test
+    void contentAddressedUploadAvoidsNamesTheReaperIsDeleting() {
+        ReflectionTestUtils.setField(storageService, "contentAddressed", true);
+        ReflectionTestUtils.setField(storageService, "checkBucket", true);
+        String digest = sha256Hex(new byte[]{1, 2, 3});
+        when(storedObjectService.isBeingDeleted(digest)).thenReturn(true);
+        when(restTemplate.exchange(startsWith(BASE_URL + "/storage/v1/object/uploads/trips/"),
+                eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok("{}"));
+
+        List<String> urls = storageService.uploadTripPhotos(List.of(photo("a.jpg")));
+
+        assertThat(urls).singleElement().asString().doesNotContain("/sha256/").endsWith("-a.jpg");
+        verify(restTemplate, never()).exchange(anyString(), eq(HttpMethod.HEAD), any(HttpEntity.class), eq(Void.class));
+        verify(storedObjectService, never()).register(anyString(), anyLong(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void discardingUploadsQueuesSharedContentAddressedObjectsForTheReaper() {
+        String digest = sha256Hex(new byte[]{1});
+        when(restTemplate.exchange(eq(BASE_URL + "/storage/v1/object/uploads"),
+                eq(HttpMethod.DELETE), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok("[]"));
+
+        storageService.discardUploads(List.of(
+                BASE_URL + "/storage/v1/object/public/uploads/trips/sha256/" + digest,
+                BASE_URL + "/storage/v1/object/public/uploads/trips/1234-a.jpg"));
+
+        var captor = org.mockito.ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq(BASE_URL + "/storage/v1/object/uploads"),
+                eq(HttpMethod.DELETE), captor.capture(), eq(String.class));
+        Map<String, List<String>> body = (Map<String, List<String>>) captor.getValue().getBody();
+        assertThat(body.get("prefixes")).containsExactly("trips/1234-a.jpg");
+        verify(objectDeletionQueue).enqueue(List.of("trips/sha256/" + digest));
+    }
+
+    @Test
+    void streamsPhotoBodyWithKnownContentLength() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        AtomicReference<String> contentLength = new AtomicReference<>();
+        AtomicReference<String> transferEncoding = new AtomicReference<>();
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        server.createContext("/", exchange -> {
+            contentLength.set(exchange.getRequestHeaders().getFirst("Content-Length"));
+            transferEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            received.set(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            SupabaseStorageService streamingService = new SupabaseStorageService(new RestTemplate(), new SimpleMeterRegistry(), storedObjectService, objectDeletionQueue);
+            ReflectionTestUtils.setField(streamingService, "supabaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+            ReflectionTestUtils.setField(streamingService, "bucketName", "uploads");
+            ReflectionTestUtils.setField(streamingService, "apiKey", "key");
+            ReflectionTestUtils.setField(streamingService, "uploadConcurrency", 1);
+            ReflectionTestUtils.setField(streamingService, "streamingUploads", true);
+
+            byte[] content = new byte[256 * 1024];
+            new java.util.Random(7).nextBytes(content);
+            streamingService.uploadTripPhotos(List.of(
+                    new MockMultipartFile("photos", "big.jpg", "image/jpeg", content)));
+            streamingService.shutdownUploadExecutor();
+
+            assertThat(contentLength.get()).isEqualTo(String.valueOf(content.length));
+            assertThat(transferEncoding.get()).isNull();
+            assertThat(received.get()).isEqualTo(content);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void pooledClientReusesConnectionAcrossUploads() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        AtomicReference<String> contentLength = new AtomicReference<>();
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            contentLength.set(exchange.getRequestHeaders().getFirst("Content-Length"));
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        RestClientConfig config = new RestClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 2);
+        for (String field : List.of("connectTimeout", "socketTimeout", "responseTimeout",
+                "poolAcquireTimeout", "idleTimeout", "timeToLive")) {
+            ReflectionTestUtils.setField(config, field, Duration.ofSeconds(10));
+        }
+        PoolingHttpClientConnectionManager connectionManager = config.storageConnectionManager();
+        try (CloseableHttpClient httpClient = config.storageHttpClient(connectionManager)) {
+            SupabaseStorageService pooledService = new SupabaseStorageService(
+                    config.restTemplate(new RestTemplateBuilder(), httpClient), new SimpleMeterRegistry(), storedObjectService, objectDeletionQueue);
+            ReflectionTestUtils.setField(pooledService, "supabaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+            ReflectionTestUtils.setField(pooledService, "bucketName", "uploads");
+            ReflectionTestUtils.setField(pooledService, "apiKey", "key");
+            ReflectionTestUtils.setField(pooledService, "uploadConcurrency", 1);
+            ReflectionTestUtils.setField(pooledService, "streamingUploads", true);
+
+            List<String> urls = pooledService.uploadTripPhotos(List.of(photo("a.jpg"), photo("b.jpg"), photo("c.jpg")));
+            pooledService.shutdownUploadExecutor();
+
+            assertThat(urls).hasSize(3);
+            // Sequential uploads ride the same kept-alive connection
+            assertThat(clientPorts).hasSize(1);
+            assertThat(contentLength.get()).isEqualTo("3");
+            assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockMultipartFile photo(String name) {
+        return new MockMultipartFile("photos", name, "image/jpeg", new byte[]{1, 2, 3});
+    }
+}
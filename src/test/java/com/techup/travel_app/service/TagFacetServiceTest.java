@@ -0,0 +1,107 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.TagFacetResponse;
+import com.techup.travel_app.event.TripChangedEvent;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.repository.TripTagsView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TagFacetServiceTest {
+
+    private TripRepository tripRepository;
+
+    private TagFacetService tagFacetService;
+
+    @BeforeEach
+    void setUp() {
+        tripRepository = mock(TripRepository.class);
+        when(tripRepository.findTagsAfterId(eq(0L), any())).thenReturn(List.of(
+                tags(1L, "beach", "food"),
+                tags(2L, "beach", "beach"),
+                tags(3L)));
+        tagFacetService = new TagFacetService(tripRepository);
+        tagFacetService.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void loadsInitialCountsOncePerTrip() {
+        assertThat(tagFacetService.getTopTags(null))
+                .extracting(TagFacetResponse::getTag, TagFacetResponse::getCount)
+                .containsExactly(tuple("beach", 2L), tuple("food", 1L));
+    }
+
+    @Test
+    void followsCreatesUpdatesAndDeletes() {
+        tagFacetService.onTripChanged(TripChangedEvent.created(4L, List.of("hiking", "food")));
+        // Trip 1 drops "beach" and gains "hiking"
+        tagFacetService.onTripChanged(TripChangedEvent.updated(1L, List.of("beach", "food"), List.of("food", "hiking")));
+
+        assertThat(tagFacetService.getTopTags(null))
+                .extracting(TagFacetResponse::getTag, TagFacetResponse::getCount)
+                .containsExactly(tuple("food", 2L), tuple("hiking", 2L), tuple("beach", 1L));
+
+        tagFacetService.onTripChanged(TripChangedEvent.deleted(2L, List.of("beach")));
+        tagFacetService.onTripChanged(TripChangedEvent.deleted(4L, List.of("hiking", "food")));
+
+        // Tags whose last trip is gone disappear instead of lingering at zero
+        assertThat(tagFacetService.getTopTags(null))
+                .extracting(TagFacetResponse::getTag, TagFacetResponse::getCount)
+                .containsExactly(tuple("food", 1L), tuple("hiking", 1L));
+    }
+
+    @Test
+    void topTagsAreCappedAndTiesBreakAlphabetically() {
+        tagFacetService.onTripChanged(TripChangedEvent.created(4L, List.of("zoo", "art", "museum")));
+        tagFacetService.onTripChanged(TripChangedEvent.created(5L, List.of("zoo", "art")));
+
+        // beach, art and zoo share the top count; food and museum tie below them
+        assertThat(tagFacetService.getTopTags(4)).extracting(TagFacetResponse::getTag)
+                .containsExactly("art", "beach", "zoo", "food");
+        assertThat(tagFacetService.getTopTags(0)).hasSize(5);
+        assertThat(tagFacetService.getTopTags(TagFacetService.MAX_LIMIT + 1)).hasSize(5);
+    }
+
+    @Test
+    void recountPicksUpTripsWrittenThroughAnotherInstance() {
+        // Trip 2 lost "beach" and trip 4 was created elsewhere; no event reached this instance
+        when(tripRepository.findTagsAfterId(eq(0L), any())).thenReturn(List.of(
+                tags(1L, "beach", "food"),
+                tags(2L),
+                tags(4L, "hiking")));
+
+        tagFacetService.refresh();
+
+        assertThat(tagFacetService.getTopTags(null))
+                .extracting(TagFacetResponse::getTag, TagFacetResponse::getCount)
+                .containsExactly(tuple("beach", 1L), tuple("food", 1L), tuple("hiking", 1L));
+
+        tagFacetService.onTripChanged(TripChangedEvent.created(5L, List.of("hiking")));
+        assertThat(tagFacetService.getTopTags(1))
+                .extracting(TagFacetResponse::getTag, TagFacetResponse::getCount)
+                .containsExactly(tuple("hiking", 2L));
+    }
+
+    private static TripTagsView tags(Long id, String... tags) {
+        return new TripTagsView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public List<String> getTags() {
+                return List.of(tags);
+            }
+        };
+    }
+}
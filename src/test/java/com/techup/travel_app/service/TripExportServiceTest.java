@@ -0,0 +1,126 @@
+package com.techup.travel_app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not wrapped in a test transaction: every chunk runs in its own read-only transaction
+@DataJpaTest(properties = "trip.export.chunk-size=4")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TripExportService.class, PhotoVariantService.class, TripCache.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class TripExportServiceTest {
+
+    @Autowired
+    private TripExportService tripExportService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private List<Trip> trips;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("exporter@example.com");
+        user.setPasswordHash("hash");
+        user.setDisplayName("Exporter");
+        User author = userRepository.save(user);
+
+        trips = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Trip trip = new Trip();
+            trip.setTitle(i == 0 ? "Rome, \"the eternal city\"" : "Trip " + i);
+            trip.setTags(List.of("italy", "food"));
+            trip.setAuthorId(author.getId());
+            trips.add(tripRepository.save(trip));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void exportsEveryTripAsNdjsonInIdOrderOneChunkAtATime() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = tripExportService.exportTrips(TripExportService.Format.NDJSON, out);
+
+        List<JsonNode> rows = out.toString(StandardCharsets.UTF_8).lines()
+                .map(this::readTree)
+                .toList();
+        assertThat(exported).isEqualTo(10);
+        assertThat(rows).extracting(row -> row.get("id").asLong())
+                .containsExactlyElementsOf(trips.stream().map(Trip::getId).toList());
+        assertThat(rows).allSatisfy(row -> assertThat(row.get("authorEmail").asText()).isEqualTo("exporter@example.com"));
+
+        // Chunks of 4, 4 and 2: one trip query and one author IN (...) lookup per chunk
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+    }
+
+    @Test
+    void exportsCsvWithQuotedFieldsAndJoinedLists() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tripExportService.exportTrips(TripExportService.Format.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(11);
+        assertThat(lines.get(0)).isEqualTo(TripExportService.CSV_HEADER);
+        assertThat(lines.get(1)).startsWith(trips.get(0).getId() + ",\"Rome, \"\"the eternal city\"\"\",,,italy|food,,,");
+        assertThat(lines.get(10)).contains(",Trip 9,", ",exporter@example.com,Exporter,");
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.techup.travel_app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techup.travel_app.dto.TripImportSummary;
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not wrapped in a test transaction: the import commits its own batches, as it does in production
+@DataJpaTest(properties = "trip.import.batch-size=3")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TripImportService.class, StoredObjectService.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+class TripImportServiceTest {
+
+    @Autowired
+    private TripImportService tripImportService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("importer@example.com");
+        user.setPasswordHash("hash");
+        user.setDisplayName("Importer");
+        author = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importsValidLinesAndReportsEveryLineInOrder() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"title\":\"Kyoto\",\"tags\":[\"Japan\"],\"authorId\":" + author.getId() + "}",
+                "",
+                "{\"title\":\"Lisbon\"}",
+                "{not json",
+                "{\"description\":\"no title\"}",
+                "{\"title\":\"Ghost\",\"authorId\":987654}",
+                "{\"title\":\"" + "x".repeat(300) + "\"}",
+                "{\"title\":\"Oslo\"}\r");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TripImportSummary summary = tripImportService.importTrips(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), author.getId(), out);
+
+        List<JsonNode> results = out.toString(StandardCharsets.UTF_8).lines()
+                .map(this::readTree)
+                .toList();
+        assertThat(results).hasSize(8);
+        assertThat(results.subList(0, 7)).extracting(result -> result.get("line").asInt() + ":" + result.get("status").asText())
+                .containsExactly("1:CREATED", "3:CREATED", "4:INVALID", "5:INVALID", "6:INVALID", "7:FAILED", "8:CREATED");
+        assertThat(results.get(3).get("errors").get(0).asText()).startsWith("title:");
+        assertThat(results.get(4).get("errors").get(0).asText()).isEqualTo("User not found with id: 987654");
+
+        assertThat(summary.getLines()).isEqualTo(7);
+        assertThat(summary.getCreated()).isEqualTo(3);
+        assertThat(summary.getInvalid()).isEqualTo(3);
+        assertThat(summary.getFailed()).isEqualTo(1);
+        assertThat(results.get(7).get("summary").get("created").asInt()).isEqualTo(3);
+
+        // The oversized title only failed its own row; the rest of its batch was retried and committed
+        assertThat(tripRepository.findAll()).extracting("title").containsExactlyInAnyOrder("Kyoto", "Lisbon", "Oslo");
+        assertThat(tripRepository.findAll()).allSatisfy(trip -> assertThat(trip.getAuthorId()).isEqualTo(author.getId()));
+    }
+
+    @Test
+    void rejectsLinesLongerThanTheLimitWithoutBufferingThem() throws Exception {
+        String ndjson = "{\"title\":\"" + "y".repeat(70_000) + "\"}\n{\"title\":\"Short\"}\n";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TripImportSummary summary = tripImportService.importTrips(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), author.getId(), out);
+
+        assertThat(summary.getInvalid()).isEqualTo(1);
+        assertThat(summary.getCreated()).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("Line exceeds 65536 characters");
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripServiceBenchmark {
+
+    private Trip trip;
+    private User author;
+
+    @Setup
+    public void setUp() {
+        author = new User();
+        author.setId(1L);
+        author.setEmail("alice@example.com");
+        author.setDisplayName("Alice");
+
+        trip = new Trip();
+        trip.setId(42L);
+        trip.setTitle("Weekend in Chiang Mai");
+        trip.setDescription("Temples, night markets and a day trip to Doi Suthep.");
+        trip.setPhotos(List.of("https://example.com/1.jpg", "https://example.com/2.jpg"));
+        trip.setTags(List.of("thailand", "food", "temples"));
+        trip.setLatitude(18.7883);
+        trip.setLongitude(98.9853);
+        trip.setAuthorId(author.getId());
+        trip.setCreatedAt(Instant.now());
+        trip.setUpdatedAt(Instant.now());
+    }
+
+    @Benchmark
+    public TripResponse mapToResponse() {
+        return TripService.mapToResponse(trip, author, Map.of());
+    }
+}
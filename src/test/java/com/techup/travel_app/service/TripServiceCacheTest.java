@@ -0,0 +1,107 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.event.TripChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServiceCacheTest {
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private TripCache tripCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private Statistics statistics;
+
+    private List<User> authors;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        authors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setEmail("author" + i + "@example.com");
+            user.setPasswordHash("hash");
+            user.setDisplayName("Author " + i);
+            entityManager.persist(user);
+            authors.add(user);
+        }
+    }
+
+    @Test
+    void tripDetailsAreServedFromCacheUntilTheTripChanges() {
+        seedTrips(1);
+        Long id = entityManager.createQuery("select t.id from Trip t", Long.class).getSingleResult();
+
+        assertThat(countStatements(() -> tripService.getTripById(id))).isEqualTo(2);
+        assertThat(countStatements(() -> tripService.getTripById(id))).isZero();
+
+        tripCache.onTripChanged(TripChangedEvent.updated(id, List.of(), List.of()));
+
+        assertThat(countStatements(() -> tripService.getTripById(id))).isEqualTo(2);
+        assertThat(tripCache.stats().hitCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void invalidatingOneTripKeepsTheOthersCached() {
+        seedTrips(2);
+        List<Long> ids = entityManager.createQuery("select t.id from Trip t order by t.id", Long.class).getResultList();
+        ids.forEach(tripService::getTripById);
+
+        // As after new photo variants, which are not a trip change
+        tripCache.invalidate(ids.get(0));
+
+        assertThat(countStatements(() -> tripService.getTripById(ids.get(0)))).isEqualTo(2);
+        assertThat(countStatements(() -> tripService.getTripById(ids.get(1)))).isZero();
+    }
+
+    private void seedTrips(int count) {
+        for (int i = 0; i < count; i++) {
+            Trip trip = new Trip();
+            trip.setTitle("Trip " + i);
+            trip.setDescription("Description " + i);
+            trip.setTags(List.of("tag" + (i % 3)));
+            trip.setAuthorId(authors.get(i % authors.size()).getId());
+            entityManager.persist(trip);
+        }
+        entityManager.flush();
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,144 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.util.GeoHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest(properties = "trip.nearby.max-candidates=5")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServiceNearbyTest {
+
+    // Bangkok
+    private static final double LAT = 13.7563;
+    private static final double LNG = 100.5018;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private Statistics statistics;
+
+    private User author;
+
+    private Trip oneKm;
+    private Trip threeKm;
+    private Trip eightKm;
+    private Trip fifteenKm;
+    private Trip pattaya;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        author = new User();
+        author.setEmail("nearby@example.com");
+        author.setPasswordHash("hash");
+        entityManager.persist(author);
+        oneKm = trip("1 km north", LAT + 0.009, LNG);
+        threeKm = trip("3 km south", LAT - 0.027, LNG);
+        eightKm = trip("8 km east", LAT, LNG + 0.072);
+        fifteenKm = trip("15 km north", LAT + 0.135, LNG);
+        pattaya = trip("Pattaya", 12.9236, 100.8825);
+        trip("No location", null, null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void returnsTripsWithinTheRadiusNearestFirst() {
+        List<TripResponse> nearby = tripService.getNearbyTrips(LAT, LNG, 10.0, null);
+
+        assertThat(nearby).extracting(TripResponse::getId)
+                .containsExactly(oneKm.getId(), threeKm.getId(), eightKm.getId());
+        assertThat(nearby.get(0).getDistanceKm()).isCloseTo(1.0, within(0.05));
+        assertThat(nearby.get(2).getDistanceKm()).isCloseTo(7.8, within(0.1));
+    }
+
+    @Test
+    void capsResultsAndLoadsOnlyTheTripsItReturns() {
+        statistics.clear();
+
+        List<TripResponse> nearby = tripService.getNearbyTrips(LAT, LNG, 20.0, 2);
+
+        assertThat(nearby).extracting(TripResponse::getId).containsExactly(oneKm.getId(), threeKm.getId());
+        // Candidates are read as id and coordinates; only the two results (and their author) become entities
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(3);
+    }
+
+    @Test
+    void largeRadiusUsesCoarseCellsButKeepsTheCutoff() {
+        assertThat(GeoHash.precisionForRadius(200.0, LAT)).isEqualTo(2);
+
+        List<TripResponse> nearby = tripService.getNearbyTrips(LAT, LNG, 200.0, 10);
+
+        assertThat(nearby).extracting(TripResponse::getId)
+                .containsExactly(oneKm.getId(), threeKm.getId(), eightKm.getId(), fifteenKm.getId(), pattaya.getId());
+        assertThat(tripService.getNearbyTrips(LAT, LNG, 50.0, 10)).extracting(TripResponse::getId)
+                .doesNotContain(pattaya.getId());
+    }
+
+    @Test
+    void nearThePoleSkipsTheCellFilterButKeepsTheCutoff() {
+        Trip twentyKm = trip("22 km towards the pole", 88.7, 10.0);
+        Trip quarterTurn = trip("237 km, a quarter turn around the pole", 88.5, 100.0);
+        Trip oneSixtyKm = trip("167 km south", 87.0, 10.0);
+        trip("334 km, across the pole", 88.5, -170.0);
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(GeoHash.precisionForRadius(300.0, 88.5)).isZero();
+
+        List<TripResponse> nearby = tripService.getNearbyTrips(88.5, 10.0, 300.0, 10);
+
+        assertThat(nearby).extracting(TripResponse::getId)
+                .containsExactly(twentyKm.getId(), oneSixtyKm.getId(), quarterTurn.getId());
+    }
+
+    @Test
+    void denseAreasKeepOnlyTheNearestCandidates() {
+        Trip halfKm = trip("0.5 km west", LAT, LNG - 0.0046);
+        Trip twoKm = trip("2 km east", LAT, LNG + 0.0185);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Six trips lie within 20 km, but only five candidates are read: the farthest one is dropped
+        List<TripResponse> nearby = tripService.getNearbyTrips(LAT, LNG, 20.0, 10);
+
+        assertThat(nearby).extracting(TripResponse::getId).containsExactly(
+                halfKm.getId(), oneKm.getId(), twoKm.getId(), threeKm.getId(), eightKm.getId());
+    }
+
+    private Trip trip(String title, Double latitude, Double longitude) {
+        Trip trip = new Trip();
+        trip.setTitle(title);
+        trip.setLatitude(latitude);
+        trip.setLongitude(longitude);
+        trip.setAuthorId(author.getId());
+        entityManager.persist(trip);
+        return trip;
+    }
+}
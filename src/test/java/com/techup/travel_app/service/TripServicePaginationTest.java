@@ -0,0 +1,123 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.CursorPageResponse;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServicePaginationTest {
+
+    private static final Instant BASE = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setEmail("pages@example.com");
+        author.setPasswordHash("hash");
+        entityManager.persist(author);
+    }
+
+    @Test
+    void walksEveryTripExactlyOnceAcrossPagesIncludingEqualCreatedAt() {
+        // Runs of four trips share a created_at, so page boundaries fall inside ties and only the id orders them
+        List<Trip> trips = seedTrips(23);
+        for (int i = 0; i < trips.size(); i++) {
+            setCreatedAt(trips.get(i), BASE.plusSeconds(i / 4));
+        }
+        entityManager.clear();
+
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        CursorPageResponse<TripResponse> page;
+        do {
+            page = tripService.getTripsPage(cursor, 5);
+            page.getItems().forEach(trip -> visited.add(trip.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (page.isHasMore());
+
+        List<Long> expected = trips.stream()
+                .sorted(Comparator.comparing((Trip trip) -> BASE.plusSeconds(trips.indexOf(trip) / 4))
+                        .thenComparing(Trip::getId)
+                        .reversed())
+                .map(Trip::getId)
+                .toList();
+        assertThat(visited).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(5);
+        assertThat(page.getItems()).hasSize(3);
+        assertThat(cursor).isNull();
+    }
+
+    @Test
+    void lastPageThatIsExactlyFullHasNoMore() {
+        seedTrips(10);
+        entityManager.clear();
+
+        CursorPageResponse<TripResponse> whole = tripService.getTripsPage(null, 10);
+        assertThat(whole.getItems()).hasSize(10);
+        assertThat(whole.isHasMore()).isFalse();
+        assertThat(whole.getNextCursor()).isNull();
+
+        CursorPageResponse<TripResponse> first = tripService.getTripsPage(null, 5);
+        CursorPageResponse<TripResponse> second = tripService.getTripsPage(first.getNextCursor(), 5);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(second.getItems()).hasSize(5);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    private List<Trip> seedTrips(int count) {
+        List<Trip> trips = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Trip trip = new Trip();
+            trip.setTitle("Trip " + i);
+            trip.setAuthorId(author.getId());
+            entityManager.persist(trip);
+            trips.add(trip);
+        }
+        entityManager.flush();
+        return trips;
+    }
+
+    private void setCreatedAt(Trip trip, Instant createdAt) {
+        entityManager.createQuery("update Trip t set t.createdAt = :createdAt where t.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", trip.getId())
+                .executeUpdate();
+    }
+}
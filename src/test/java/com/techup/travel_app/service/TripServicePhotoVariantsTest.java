@@ -0,0 +1,108 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.PhotoVariants;
+import com.techup.travel_app.dto.ResourceVersion;
+import com.techup.travel_app.entity.PhotoVariant;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.repository.TripRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServicePhotoVariantsTest {
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private List<User> authors;
+
+    @BeforeEach
+    void setUp() {
+        authors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setEmail("author" + i + "@example.com");
+            user.setPasswordHash("hash");
+            user.setDisplayName("Author " + i);
+            entityManager.persist(user);
+            authors.add(user);
+        }
+    }
+
+    @Test
+    void photosExposeVariantsOnceGenerated() {
+        seedTrips(1);
+        Trip trip = entityManager.createQuery("select t from Trip t", Trip.class).getSingleResult();
+        trip.setPhotos(List.of("https://cdn.example.com/a.jpg", "https://cdn.example.com/b.jpg"));
+        entityManager.persist(new PhotoVariant("https://cdn.example.com/b.jpg",
+                "https://cdn.example.com/b.jpg.thumbnail.jpg", "https://cdn.example.com/b.jpg.card.jpg",
+                "https://cdn.example.com/b.jpg.full.jpg", null));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PhotoVariants> photos = tripService.getTripById(trip.getId()).getPhotoVariants();
+
+        assertThat(photos).extracting(PhotoVariants::getUrl)
+                .containsExactly("https://cdn.example.com/a.jpg", "https://cdn.example.com/b.jpg");
+        assertThat(photos.get(0).getThumbnail()).isNull();
+        assertThat(photos.get(1).getThumbnail()).isEqualTo("https://cdn.example.com/b.jpg.thumbnail.jpg");
+        assertThat(photos.get(1).getCard()).isEqualTo("https://cdn.example.com/b.jpg.card.jpg");
+        assertThat(photos.get(1).getFull()).isEqualTo("https://cdn.example.com/b.jpg.full.jpg");
+    }
+
+    @Test
+    void newPhotoVariantsMoveTheTripVersionButNotUpdatedAt() {
+        seedTrips(1);
+        Trip trip = entityManager.createQuery("select t from Trip t", Trip.class).getSingleResult();
+        ResourceVersion before = tripService.getTripVersion(trip.getId());
+
+        Instant generatedAt = trip.getUpdatedAt().plusSeconds(60);
+        tripRepository.markVariantsUpdated(List.of(trip.getId()), generatedAt);
+        entityManager.clear();
+
+        ResourceVersion after = tripService.getTripVersion(trip.getId());
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(after.lastModified()).isEqualTo(generatedAt);
+        assertThat(tripService.getTripById(trip.getId()).getUpdatedAt()).isEqualTo(trip.getUpdatedAt());
+    }
+
+    private void seedTrips(int count) {
+        for (int i = 0; i < count; i++) {
+            Trip trip = new Trip();
+            trip.setTitle("Trip " + i);
+            trip.setDescription("Description " + i);
+            trip.setTags(List.of("tag" + (i % 3)));
+            trip.setAuthorId(authors.get(i % authors.size()).getId());
+            entityManager.persist(trip);
+        }
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,129 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.CursorPageResponse;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statement counts: pages and lists must not issue a query per trip
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServiceQueryCountTest {
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private Statistics statistics;
+
+    private List<User> authors;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        authors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setEmail("author" + i + "@example.com");
+            user.setPasswordHash("hash");
+            user.setDisplayName("Author " + i);
+            entityManager.persist(user);
+            authors.add(user);
+        }
+    }
+
+    @Test
+    void pageOfTripsResolvesAuthorsWithConstantNumberOfStatements() {
+        seedTrips(60);
+
+        long smallPage = countStatements(() -> tripService.getTripsPage(null, 5));
+        long largePage = countStatements(() -> tripService.getTripsPage(null, 50));
+
+        // One statement for the trips page and one IN (...) lookup for all of its authors
+        assertThat(smallPage).isEqualTo(2);
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void pageOfTripsCarriesAuthorDetails() {
+        seedTrips(10);
+        entityManager.clear();
+
+        CursorPageResponse<TripResponse> page = tripService.getTripsPage(null, 10);
+
+        assertThat(page.getItems()).hasSize(10);
+        assertThat(page.getItems()).allSatisfy(trip -> {
+            assertThat(trip.getAuthorEmail()).isNotNull();
+            assertThat(trip.getAuthorDisplayName()).startsWith("Author ");
+        });
+    }
+
+    @Test
+    void tripsByAuthorAndSearchUseConstantNumberOfStatements() {
+        seedTrips(40);
+
+        Long authorId = authors.get(0).getId();
+        assertThat(countStatements(() -> tripService.getTripsByAuthorId(authorId))).isEqualTo(2);
+        assertThat(countStatements(() -> tripService.searchTrips("trip", null, 50))).isEqualTo(2);
+    }
+
+    @Test
+    void pageOfTripsWithPhotosResolvesVariantsInOneLookup() {
+        seedTrips(30);
+        entityManager.createQuery("select t from Trip t", Trip.class).getResultList()
+                .forEach(trip -> trip.setPhotos(List.of("https://cdn.example.com/" + trip.getId() + ".jpg")));
+        entityManager.flush();
+
+        long smallPage = countStatements(() -> tripService.getTripsPage(null, 5));
+        long largePage = countStatements(() -> tripService.getTripsPage(null, 30));
+
+        // Trips, authors and one IN (...) lookup for every photo's variants
+        assertThat(smallPage).isEqualTo(3);
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    private void seedTrips(int count) {
+        for (int i = 0; i < count; i++) {
+            Trip trip = new Trip();
+            trip.setTitle("Trip " + i);
+            trip.setDescription("Description " + i);
+            trip.setTags(List.of("tag" + (i % 3)));
+            trip.setAuthorId(authors.get(i % authors.size()).getId());
+            entityManager.persist(trip);
+        }
+        entityManager.flush();
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,104 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.CursorPageResponse;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Full-text search: what matches, how results rank and how they page
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServiceSearchTest {
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private List<User> authors;
+
+    @BeforeEach
+    void setUp() {
+        authors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setEmail("author" + i + "@example.com");
+            user.setPasswordHash("hash");
+            user.setDisplayName("Author " + i);
+            entityManager.persist(user);
+            authors.add(user);
+        }
+    }
+
+    @Test
+    void searchMatchesTagsAndDescriptionAndRanksTitleMatchesFirst() {
+        seedTrips(6);
+        Trip titleMatch = new Trip();
+        titleMatch.setTitle("Beach escape");
+        titleMatch.setAuthorId(authors.get(0).getId());
+        entityManager.persist(titleMatch);
+        Trip tagMatch = new Trip();
+        tagMatch.setTitle("Weekend");
+        tagMatch.setTags(List.of("beach"));
+        tagMatch.setAuthorId(authors.get(1).getId());
+        entityManager.persist(tagMatch);
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPageResponse<TripResponse> page = tripService.searchTrips("beach", null, 10);
+
+        assertThat(page.getItems()).extracting(TripResponse::getId)
+                .containsExactly(titleMatch.getId(), tagMatch.getId());
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void searchPagesWithOpaqueCursor() {
+        seedTrips(25);
+        entityManager.clear();
+
+        CursorPageResponse<TripResponse> first = tripService.searchTrips("description", null, 10);
+        CursorPageResponse<TripResponse> second = tripService.searchTrips("description", first.getNextCursor(), 10);
+        CursorPageResponse<TripResponse> third = tripService.searchTrips("description", second.getNextCursor(), 10);
+
+        assertThat(first.getItems()).hasSize(10);
+        assertThat(second.getItems()).hasSize(10);
+        assertThat(third.getItems()).hasSize(5);
+        assertThat(third.isHasMore()).isFalse();
+        assertThat(third.getNextCursor()).isNull();
+    }
+
+    private void seedTrips(int count) {
+        for (int i = 0; i < count; i++) {
+            Trip trip = new Trip();
+            trip.setTitle("Trip " + i);
+            trip.setDescription("Description " + i);
+            trip.setTags(List.of("tag" + (i % 3)));
+            trip.setAuthorId(authors.get(i % authors.size()).getId());
+            entityManager.persist(trip);
+        }
+        entityManager.flush();
+    }
+}
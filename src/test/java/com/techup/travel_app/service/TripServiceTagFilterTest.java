@@ -0,0 +1,107 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.CursorPageResponse;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServiceTagFilterTest {
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private Trip beachAndFood;
+    private Trip beach;
+    private Trip food;
+    private Trip beachFoodAndHiking;
+
+    @BeforeEach
+    void setUp() {
+        User author = new User();
+        author.setEmail("tags@example.com");
+        author.setPasswordHash("hash");
+        entityManager.persist(author);
+
+        // Oldest first, so the newest-first order is the reverse of this
+        beachAndFood = trip(author, "beach", "food");
+        beach = trip(author, "beach");
+        food = trip(author, "food");
+        trip(author, "hiking");
+        beachFoodAndHiking = trip(author, "hiking", "food", "beach");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void matchAllRequiresEveryTag() {
+        CursorPageResponse<TripResponse> page = tripService.getTripsPage(null, 10, List.of("beach", "food"), true);
+
+        assertThat(ids(page)).containsExactly(beachFoodAndHiking.getId(), beachAndFood.getId());
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void matchAnyAcceptsAnyTag() {
+        CursorPageResponse<TripResponse> page = tripService.getTripsPage(null, 10, List.of("beach", "food"), false);
+
+        assertThat(ids(page)).containsExactly(
+                beachFoodAndHiking.getId(), food.getId(), beach.getId(), beachAndFood.getId());
+    }
+
+    @Test
+    void tagFiltersPageWithTheCursor() {
+        CursorPageResponse<TripResponse> first = tripService.getTripsPage(null, 1, List.of("beach", "food"), true);
+        CursorPageResponse<TripResponse> second = tripService.getTripsPage(first.getNextCursor(), 1, List.of("beach", "food"), true);
+
+        assertThat(ids(first)).containsExactly(beachFoodAndHiking.getId());
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(ids(second)).containsExactly(beachAndFood.getId());
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        CursorPageResponse<TripResponse> anyFirst = tripService.getTripsPage(null, 2, List.of("beach", "food"), false);
+        CursorPageResponse<TripResponse> anySecond = tripService.getTripsPage(anyFirst.getNextCursor(), 2, List.of("beach", "food"), false);
+
+        assertThat(ids(anyFirst)).containsExactly(beachFoodAndHiking.getId(), food.getId());
+        assertThat(ids(anySecond)).containsExactly(beach.getId(), beachAndFood.getId());
+        assertThat(anySecond.isHasMore()).isFalse();
+    }
+
+    private Trip trip(User author, String... tags) {
+        Trip trip = new Trip();
+        trip.setTitle(String.join(" ", tags));
+        trip.setTags(List.of(tags));
+        trip.setAuthorId(author.getId());
+        entityManager.persist(trip);
+        return trip;
+    }
+
+    private static List<Long> ids(CursorPageResponse<TripResponse> page) {
+        return page.getItems().stream().map(TripResponse::getId).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.TripRequest;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.repository.TripRepository;
+import com.techup.travel_app.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Not wrapped in a test transaction: the upload flows manage their own
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServiceUploadTest {
+
+    private static final String UPLOADED = "https://project.supabase.co/storage/v1/object/public/uploads/trips/1-a.jpg";
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    @MockitoSpyBean
+    private PhotoVariantService photoVariantService;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setEmail("uploads@example.com");
+        author.setPasswordHash("hash");
+        author = userRepository.save(author);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void uploadsRunWithoutATransactionOrConnection() throws SQLException {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        List<Object> duringUpload = new ArrayList<>();
+        when(storageService.uploadTripPhotos(anyList())).thenAnswer(invocation -> {
+            duringUpload.add(TransactionSynchronizationManager.isActualTransactionActive());
+            duringUpload.add(pool.getHikariPoolMXBean().getActiveConnections());
+            return List.of(UPLOADED);
+        });
+
+        TripResponse response = tripService.createTripWithUploads(request("Beach"), List.of(photo()));
+
+        assertThat(duringUpload).containsExactly(false, 0);
+        assertThat(response.getPhotos()).containsExactly(UPLOADED);
+        verify(storageService, never()).discardUploads(anyList());
+    }
+
+    @Test
+    void failedPersistRemovesTheUploadedObjects() {
+        when(storageService.uploadTripPhotos(anyList())).thenReturn(List.of(UPLOADED));
+
+        // No title: the insert violates NOT NULL after the upload has finished
+        assertThatThrownBy(() -> tripService.createTripWithUploads(request(null), List.of(photo())))
+                .isInstanceOf(RuntimeException.class);
+
+        verify(storageService).discardUploads(List.of(UPLOADED));
+        assertThat(tripRepository.count()).isZero();
+    }
+
+    @Test
+    void failureAfterCommitKeepsTheSavedTripAndItsUploads() {
+        when(storageService.uploadTripPhotos(anyList())).thenReturn(List.of(UPLOADED));
+        doThrow(new IllegalStateException("executor shut down")).when(photoVariantService).generateVariants(anyList());
+
+        TripResponse response = tripService.createTripWithUploads(request("Beach"), List.of(photo()));
+
+        assertThat(tripRepository.findById(response.getId())).isPresent();
+        verify(storageService, never()).discardUploads(anyList());
+    }
+
+    private TripRequest request(String title) {
+        TripRequest request = new TripRequest();
+        request.setTitle(title);
+        request.setAuthorId(author.getId());
+        return request;
+    }
+
+    private static MockMultipartFile photo() {
+        return new MockMultipartFile("photos", "a.jpg", "image/jpeg", new byte[]{1, 2, 3});
+    }
+}
@@ -0,0 +1,131 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.CursorPageResponse;
+import com.techup.travel_app.dto.ResourceVersion;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.entity.Trip;
+import com.techup.travel_app.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// HTTP cache validators (ETag / Last-Modified) for trip details and lists
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TripService.class, TripCache.class, PhotoVariantService.class, StoredObjectService.class, ObjectDeletionQueue.class,
+        SimpleMeterRegistry.class})
+class TripServiceVersionTest {
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    private Statistics statistics;
+
+    private List<User> authors;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        authors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setEmail("author" + i + "@example.com");
+            user.setPasswordHash("hash");
+            user.setDisplayName("Author " + i);
+            entityManager.persist(user);
+            authors.add(user);
+        }
+    }
+
+    @Test
+    void tripVersionIsReadCheaplyFromTheRowEvenWhenCached() {
+        seedTrips(1);
+        Long id = entityManager.createQuery("select t.id from Trip t", Long.class).getSingleResult();
+
+        ResourceVersion[] versions = new ResourceVersion[3];
+        assertThat(countStatements(() -> versions[0] = tripService.getTripVersion(id))).isEqualTo(1);
+        tripService.getTripById(id);
+        assertThat(countStatements(() -> versions[1] = tripService.getTripVersion(id))).isEqualTo(1);
+        assertThat(versions[1]).isEqualTo(versions[0]);
+
+        // A change the cache never heard of (e.g. made on another instance) still moves the ETag
+        entityManager.createQuery("update Trip t set t.updatedAt = :now where t.id = :id")
+                .setParameter("now", Instant.now().plusSeconds(60))
+                .setParameter("id", id)
+                .executeUpdate();
+        versions[2] = tripService.getTripVersion(id);
+        assertThat(versions[2]).isNotEqualTo(versions[0]);
+        assertThat(versions[0].etag()).startsWith("\"").endsWith("\"");
+        assertThat(tripService.getTripVersion(Long.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    void listVersionFollowsTheReturnedPage() {
+        seedTrips(4);
+        Long authorId = authors.get(0).getId();
+        CursorPageResponse<TripResponse> page = tripService.getTripsPage(null, 2);
+        ResourceVersion before = tripService.getListVersion(page.getItems(), page.getNextCursor());
+
+        assertThat(countStatements(() -> tripService.getListVersion(page.getItems(), page.getNextCursor()))).isZero();
+        assertThat(tripService.getListVersion(tripService.getTripsPage(null, 3).getItems(), null)).isNotEqualTo(before);
+
+        // A trip outside the page does not change it; a new first item or a renamed author does
+        entityManager.createQuery("delete from Trip t where t.id = (select min(t2.id) from Trip t2)").executeUpdate();
+        CursorPageResponse<TripResponse> samePage = tripService.getTripsPage(null, 2);
+        assertThat(tripService.getListVersion(samePage.getItems(), samePage.getNextCursor())).isEqualTo(before);
+
+        seedTrips(1);
+        CursorPageResponse<TripResponse> newPage = tripService.getTripsPage(null, 2);
+        assertThat(tripService.getListVersion(newPage.getItems(), newPage.getNextCursor())).isNotEqualTo(before);
+
+        List<TripResponse> byAuthor = tripService.getTripsByAuthorId(authorId);
+        ResourceVersion authorBefore = tripService.getListVersion(byAuthor, null);
+        entityManager.createQuery("update User u set u.displayName = 'Renamed' where u.id = :id")
+                .setParameter("id", authorId)
+                .executeUpdate();
+        entityManager.clear();
+        assertThat(tripService.getListVersion(tripService.getTripsByAuthorId(authorId), null)).isNotEqualTo(authorBefore);
+    }
+
+    private void seedTrips(int count) {
+        for (int i = 0; i < count; i++) {
+            Trip trip = new Trip();
+            trip.setTitle("Trip " + i);
+            trip.setDescription("Description " + i);
+            trip.setTags(List.of("tag" + (i % 3)));
+            trip.setAuthorId(authors.get(i % authors.size()).getId());
+            entityManager.persist(trip);
+        }
+        entityManager.flush();
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
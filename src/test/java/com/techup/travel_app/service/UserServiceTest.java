@@ -0,0 +1,100 @@
+package com.techup.travel_app.service;
+
+import com.techup.travel_app.dto.RegisterRequest;
+import com.techup.travel_app.dto.TripResponse;
+import com.techup.travel_app.dto.UserRequest;
+import com.techup.travel_app.repository.UserRepository;
+import com.techup.travel_app.security.UserDetailsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not wrapped in a test transaction: the caches must only be dropped once the change has committed
+@DataJpaTest(properties = "security.user-cache.max-size=100")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserService.class, UserDetailsServiceImpl.class, TripCache.class, BCryptPasswordEncoder.class})
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private TripCache tripCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateDropsCachedUserAndTripsOnlyAfterCommit() {
+        Long id = register("old@example.com");
+        userDetailsService.loadUserByUsername("old@example.com");
+        tripCache.get(1L, tripId -> TripResponse.builder().id(tripId).build());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.updateUser(id, userRequest("new@example.com"));
+            assertThat(tripCache.peek(1L)).isNotNull();
+        });
+
+        assertThat(tripCache.peek(1L)).isNull();
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("old@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThat(userDetailsService.loadUserByUsername("new@example.com").getUsername()).isEqualTo("new@example.com");
+    }
+
+    @Test
+    void rolledBackDeleteKeepsCaches() {
+        Long id = register("kept@example.com");
+        tripCache.get(1L, tripId -> TripResponse.builder().id(tripId).build());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUser(id);
+            status.setRollbackOnly();
+        });
+
+        assertThat(tripCache.peek(1L)).isNotNull();
+        assertThat(userRepository.existsById(id)).isTrue();
+
+        userService.deleteUser(id);
+        assertThat(tripCache.peek(1L)).isNull();
+    }
+
+    private Long register(String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword("secret1");
+        request.setDisplayName("Traveller");
+        return userService.createUser(request).getId();
+    }
+
+    private static UserRequest userRequest(String email) {
+        UserRequest request = new UserRequest();
+        request.setEmail(email);
+        request.setDisplayName("Traveller");
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.techup.travel_app.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheLoadsTest {
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AsyncCache<Long, String> cache = Caffeine.newBuilder().buildAsync();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> CacheLoads.getOrLoad(cache, 1L, id -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "trip-" + id;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("trip-1");
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(CacheLoads.peek(cache, 1L)).isEqualTo("trip-1");
+    }
+
+    @Test
+    void failedAndNullLoadsAreNotCached() {
+        AsyncCache<Long, String> cache = Caffeine.newBuilder().buildAsync();
+
+        assertThatThrownBy(() -> CacheLoads.getOrLoad(cache, 1L, id -> {
+            throw new IllegalStateException("Trip not found with id: " + id);
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(CacheLoads.getOrLoad(cache, 2L, id -> null)).isNull();
+
+        assertThat(CacheLoads.getOrLoad(cache, 1L, id -> "trip-1")).isEqualTo("trip-1");
+        assertThat(CacheLoads.getOrLoad(cache, 2L, id -> "trip-2")).isEqualTo("trip-2");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.techup.travel_app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoHashTest {
+
+    @Test
+    void encodesKnownReferencePoint() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+    }
+
+    @Test
+    void coveringCellsContainEveryPointInsideTheRadius() {
+        Random random = new Random(42);
+        double[][] centres = {{13.7563, 100.5018}, {51.5074, -0.1278}, {-33.8688, 151.2093}, {0.0, 179.99}};
+        double[] radii = {0.5, 5, 25, 120};
+
+        for (double[] centre : centres) {
+            for (double radius : radii) {
+                int precision = GeoHash.precisionForRadius(radius, centre[0]);
+                Set<String> cells = GeoHash.coveringCells(centre[0], centre[1], precision);
+
+                for (int i = 0; i < 500; i++) {
+                    double bearing = random.nextDouble() * 2 * Math.PI;
+                    double distance = random.nextDouble() * radius;
+                    double lat = centre[0] + Math.toDegrees(distance / 6371.0088) * Math.cos(bearing);
+                    double lng = centre[1] + Math.toDegrees(distance / 6371.0088) * Math.sin(bearing)
+                            / Math.cos(Math.toRadians(centre[0]));
+                    if (lng >= 180) {
+                        lng -= 360;
+                    }
+                    if (GeoHash.distanceKm(centre[0], centre[1], lat, lng) > radius) {
+                        continue;
+                    }
+                    String hash = GeoHash.encode(lat, lng, GeoHash.STORED_PRECISION);
+                    assertThat(cells).anySatisfy(cell -> assertThat(hash).startsWith(cell));
+                }
+            }
+        }
+    }
+}
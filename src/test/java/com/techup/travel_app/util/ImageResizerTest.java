@@ -0,0 +1,110 @@
+package com.techup.travel_app.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageResizerTest {
+
+    @Test
+    void decodesLargeImagesSubsampledButAtLeastTwiceTheTarget() throws IOException {
+        byte[] png = png(new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_ARGB));
+
+        BufferedImage decoded = ImageResizer.decode(new ByteArrayInputStream(png), 800);
+
+        // 4000 / (2 * 800) = every 2nd pixel
+        assertThat(decoded.getWidth()).isEqualTo(2000);
+        assertThat(decoded.getHeight()).isEqualTo(1500);
+        assertThat(decoded.getType()).isEqualTo(BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Test
+    void returnsNullWhenNoReaderSupportsTheFormat() throws IOException {
+        byte[] notAnImage = "ftypheic not really an image".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(ImageResizer.decode(new ByteArrayInputStream(notAnImage), 320)).isNull();
+    }
+
+    @Test
+    void scalesDownToFitKeepingAspectRatio() {
+        BufferedImage scaled = ImageResizer.scaleToFit(new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_RGB), 320);
+
+        assertThat(scaled.getWidth()).isEqualTo(320);
+        assertThat(scaled.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    void leavesSmallImagesAlone() {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+
+        assertThat(ImageResizer.scaleToFit(image, 320)).isSameAs(image);
+    }
+
+    @Test
+    void encodesJpegThatDecodesBack() throws IOException {
+        byte[] jpeg = ImageResizer.encodeJpeg(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), 0.8f);
+
+        assertThat(jpeg).startsWith((byte) 0xFF, (byte) 0xD8);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertThat(decoded.getWidth()).isEqualTo(64);
+        assertThat(decoded.getHeight()).isEqualTo(48);
+    }
+
+    @Test
+    void readsOrientationFromExifSegmentInEitherByteOrder() {
+        assertThat(ImageResizer.exifOrientation(exif(false, 6))).isEqualTo(6);
+        assertThat(ImageResizer.exifOrientation(exif(true, 3))).isEqualTo(3);
+        assertThat(ImageResizer.exifOrientation("XMP data".getBytes(StandardCharsets.US_ASCII))).isZero();
+    }
+
+    @Test
+    void rotatedOrientationsSwapWidthAndHeight() {
+        BufferedImage image = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, 0xFF0000);
+
+        BufferedImage rotated = ImageResizer.orient(image, 6);
+
+        assertThat(rotated.getWidth()).isEqualTo(30);
+        assertThat(rotated.getHeight()).isEqualTo(40);
+        // Orientation 6 is stored rotated 90 degrees counter-clockwise: the top-left pixel ends up top-right
+        assertThat(rotated.getRGB(29, 0) & 0xFFFFFF).isEqualTo(0xFF0000);
+        assertThat(ImageResizer.orient(rotated, 1)).isSameAs(rotated);
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    // "Exif\0\0" + TIFF header + IFD0 holding a single orientation entry
+    private static byte[] exif(boolean littleEndian, int orientation) {
+        byte[] app1 = new byte[6 + 8 + 2 + 12 + 4];
+        System.arraycopy("Exif".getBytes(StandardCharsets.US_ASCII), 0, app1, 0, 4);
+        int tiff = 6;
+        app1[tiff] = app1[tiff + 1] = (byte) (littleEndian ? 'I' : 'M');
+        putShort(app1, tiff + 2, 42, littleEndian);
+        putShort(app1, tiff + 4, littleEndian ? 8 : 0, littleEndian);
+        putShort(app1, tiff + 6, littleEndian ? 0 : 8, littleEndian);
+        putShort(app1, tiff + 8, 1, littleEndian);
+        int entry = tiff + 10;
+        putShort(app1, entry, 0x0112, littleEndian);
+        putShort(app1, entry + 2, 3, littleEndian);
+        putShort(app1, entry + 4, littleEndian ? 1 : 0, littleEndian);
+        putShort(app1, entry + 6, littleEndian ? 0 : 1, littleEndian);
+        putShort(app1, entry + 8, orientation, littleEndian);
+        return app1;
+    }
+
+    private static void putShort(byte[] bytes, int offset, int value, boolean littleEndian) {
+        bytes[offset + (littleEndian ? 0 : 1)] = (byte) value;
+        bytes[offset + (littleEndian ? 1 : 0)] = (byte) (value >> 8);
+    }
+}
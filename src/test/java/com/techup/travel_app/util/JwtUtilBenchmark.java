@@ -0,0 +1,61 @@
+package com.techup.travel_app.util;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="JwtUtilBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil cachingJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = jwtUtil(0);
+        cachingJwtUtil = jwtUtil(1_000);
+        token = jwtUtil.generateAccessToken("alice@example.com");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateAccessToken("alice@example.com");
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtUtil.parseAndVerify(token);
+    }
+
+    @Benchmark
+    public Claims verifyWithCache() {
+        return cachingJwtUtil.parseAndVerify(token);
+    }
+
+    private static JwtUtil jwtUtil(long cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmark-secret-key-that-is-at-least-32-bytes-long");
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verificationCacheMaxSize", cacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,75 @@
+package com.techup.travel_app.util;
+
+import com.techup.travel_app.entity.User;
+import com.techup.travel_app.security.CustomUserDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static JwtUtil jwtUtil(long cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-that-is-at-least-32-bytes-long");
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verificationCacheMaxSize", cacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Test
+    void parseAndVerifyReturnsSubjectAndExpiryFromOneParse() {
+        JwtUtil jwtUtil = jwtUtil(0);
+        String token = jwtUtil.generateAccessToken("alice@example.com");
+
+        Claims claims = jwtUtil.parseAndVerify(token);
+
+        assertThat(claims.getSubject()).isEqualTo("alice@example.com");
+        assertThat(claims.getExpiration()).isInTheFuture();
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void cachedVerificationStillRejectsTamperedTokens() {
+        JwtUtil jwtUtil = jwtUtil(100);
+        String token = jwtUtil.generateAccessToken("alice@example.com");
+
+        assertThat(jwtUtil.parseAndVerify(token)).isSameAs(jwtUtil.parseAndVerify(token));
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThatThrownBy(() -> jwtUtil.parseAndVerify(tampered)).isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.validateToken(tampered)).isFalse();
+    }
+
+    @Test
+    void accessTokenCarriesUserIdAndRoles() {
+        JwtUtil jwtUtil = jwtUtil(0);
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("alice@example.com");
+
+        Claims claims = jwtUtil.parseAndVerify(jwtUtil.generateAccessToken(new CustomUserDetails(user)));
+
+        assertThat(jwtUtil.extractUserId(claims)).isEqualTo(42L);
+        assertThat(jwtUtil.extractRoles(claims)).containsExactly(CustomUserDetails.DEFAULT_ROLE);
+
+        CustomUserDetails principal = CustomUserDetails.fromClaims(
+                jwtUtil.extractUserId(claims), claims.getSubject(), jwtUtil.extractRoles(claims));
+        assertThat(principal.getUserId()).isEqualTo(42L);
+        assertThat(principal.getUsername()).isEqualTo("alice@example.com");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void tokensWithoutUserIdFallBackToLookup() {
+        JwtUtil jwtUtil = jwtUtil(0);
+
+        Claims claims = jwtUtil.parseAndVerify(jwtUtil.generateAccessToken("alice@example.com"));
+
+        assertThat(jwtUtil.extractUserId(claims)).isNull();
+    }
+}
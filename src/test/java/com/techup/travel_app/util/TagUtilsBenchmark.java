@@ -0,0 +1,39 @@
+package com.techup.travel_app.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagUtilsBenchmark {
+
+    @Param({"beach", "beach, food ,hiking", "a,b,c,d,e,f,g,h,i,j,a,b, ,c"})
+    public String csv;
+
+    @Benchmark
+    public List<String> parse() {
+        return TagUtils.parse(csv);
+    }
+
+    // What the controller did before TagUtils: a bare split with no trimming or de-duplication
+    @Benchmark
+    public List<String> legacySplit() {
+        return Arrays.asList(csv.split(","));
+    }
+}
@@ -0,0 +1,66 @@
+-- Ids are allocated by Hibernate in blocks (PooledSequenceIdGenerator); INCREMENT BY is the block size
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS trips_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    display_name VARCHAR(255),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS trips (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description CHARACTER VARYING,
+    photos CHARACTER VARYING ARRAY,
+    tags CHARACTER VARYING ARRAY,
+    search_text CHARACTER VARYING,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    geohash VARCHAR(12),
+    author_id BIGINT,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    variants_updated_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_trips_created_at_id ON trips (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_trips_geohash ON trips (geohash);
+CREATE INDEX IF NOT EXISTS idx_trips_updated_at ON trips (updated_at);
+CREATE INDEX IF NOT EXISTS idx_trips_author_id_updated_at ON trips (author_id, updated_at);
+
+CREATE TABLE IF NOT EXISTS photo_variants (
+    photo_url CHARACTER VARYING PRIMARY KEY,
+    thumbnail_url CHARACTER VARYING NOT NULL,
+    card_url CHARACTER VARYING NOT NULL,
+    full_url CHARACTER VARYING NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS stored_objects (
+    digest VARCHAR(64) PRIMARY KEY,
+    object_name CHARACTER VARYING NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    content_type VARCHAR(255),
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_used_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    deleting_since TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE SEQUENCE IF NOT EXISTS object_deletions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS object_deletions (
+    id BIGINT PRIMARY KEY,
+    object_name CHARACTER VARYING NOT NULL,
+    not_before TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    claimed_at TIMESTAMP(6) WITH TIME ZONE,
+    attempts INTEGER NOT NULL,
+    last_error CHARACTER VARYING,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_object_deletions_not_before ON object_deletions (not_before, id);
+CREATE INDEX IF NOT EXISTS idx_object_deletions_object_name ON object_deletions (object_name);